@@ -0,0 +1,89 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request for the default build and for the fast-startup
+# mode (Spring AOT + AppCDS archive + lazy initialization + background seeding).
+#
+#   scripts/startup-benchmark.sh [runs]
+#
+# Run from the backend directory. Needs JDK 17, Maven and curl.
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-8080}"
+URL="http://localhost:${PORT}/api/auth/health"
+WORK="target/startup-bench"
+MAIN_CLASS="com.workflow.WorkflowApplication"
+
+rm -rf "$WORK"
+mkdir -p "$WORK"
+
+echo "Building default jar..."
+mvn -B -q -DskipTests package
+cp target/workflow-backend-1.0.0.jar "$WORK/default.jar"
+
+echo "Building AOT-processed jar..."
+mvn -B -q -DskipTests -Pfast-startup package
+cp target/workflow-backend-1.0.0.jar "$WORK/fast.jar"
+
+# CDS cannot map classes out of nested jars, so run the fast build from an exploded layout.
+# It also only archives classes loaded from jars (and refuses to dump with a non-empty
+# directory on the classpath), so the application classes are repackaged as a plain jar.
+mkdir -p "$WORK/fast"
+(cd "$WORK/fast" && jar -xf ../fast.jar)
+jar -cf "$WORK/fast/app-classes.jar" -C "$WORK/fast/BOOT-INF/classes" .
+CLASSPATH="$WORK/fast/app-classes.jar"
+for lib in "$WORK"/fast/BOOT-INF/lib/*.jar; do
+    CLASSPATH="$CLASSPATH:$lib"
+done
+FAST_OPTS=(-Dspring.aot.enabled=true -Dspring.profiles.active=fast-startup -Dserver.port="$PORT")
+
+echo "Training run to create the AppCDS archive..."
+java -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dworkflow.cds.training=true "${FAST_OPTS[@]}" \
+    -cp "$CLASSPATH" "$MAIN_CLASS" > "$WORK/training.log" 2>&1 || true
+if [[ ! -s "$WORK/app.jsa" ]]; then
+    echo "AppCDS archive was not created, see $WORK/training.log" >&2
+    tail -n 20 "$WORK/training.log" >&2 || true
+    exit 1
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+# Starts the app, polls until the health endpoint answers, prints elapsed ms
+time_to_first_request() {
+    local start pid elapsed
+    start=$(now_ms)
+    "$@" > "$WORK/run.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "application exited early, see $WORK/run.log" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_ms) - start ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed"
+}
+
+bench() {
+    local label="$1"
+    shift
+    local total=0 best=0 t
+    for ((i = 1; i <= RUNS; i++)); do
+        t=$(time_to_first_request "$@")
+        total=$((total + t))
+        if (( best == 0 || t < best )); then
+            best=$t
+        fi
+    done
+    printf "%-28s avg %6d ms   best %6d ms   (%d runs)\n" "$label" $((total / RUNS)) "$best" "$RUNS"
+}
+
+echo
+echo "Time to first request on ${URL}"
+bench "default (fat jar)" java -Dserver.port="$PORT" -jar "$WORK/default.jar"
+bench "fast-startup (AOT, no CDS)" java "${FAST_OPTS[@]}" -cp "$CLASSPATH" "$MAIN_CLASS"
+bench "fast-startup (AOT + CDS)" java -XX:SharedArchiveFile="$WORK/app.jsa" "${FAST_OPTS[@]}" -cp "$CLASSPATH" "$MAIN_CLASS"
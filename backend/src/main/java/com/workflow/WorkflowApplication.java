@@ -2,10 +2,17 @@ package com.workflow;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class WorkflowApplication {
     public static void main(String[] args) {
-        SpringApplication.run(WorkflowApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(WorkflowApplication.class, args);
+        // Training run for an AppCDS archive: start fully, then exit so the JVM can dump loaded classes
+        if (Boolean.getBoolean("workflow.cds.training")) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package com.workflow.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.exception.ServiceOverloadedException;
+import com.workflow.service.Bulkhead;
+import com.workflow.service.TokenBucketRateLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Guards workflow submissions (POST /api/workflows/{username}) so a bulk importer cannot
+// starve approvals: a per-user token bucket (429) and a submission bulkhead (503).
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Pattern SUBMISSION_PATH = Pattern.compile("^/api/workflows/([^/]+)/?$");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${workflow.admission.submissions.rate-per-minute:30}")
+    private double ratePerMinute;
+
+    @Value("${workflow.admission.submissions.burst:10}")
+    private double burst;
+
+    @Value("${workflow.admission.submissions.max-concurrent:8}")
+    private int maxConcurrent;
+
+    @Value("${workflow.admission.submissions.max-queue:32}")
+    private int maxQueue;
+
+    @Value("${workflow.admission.submissions.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    @Value("${workflow.admission.submissions.target-queue-latency-ms:200}")
+    private long targetQueueLatencyMs;
+
+    private TokenBucketRateLimiter rateLimiter;
+    private Bulkhead submissionBulkhead;
+
+    @PostConstruct
+    void init() {
+        rateLimiter = new TokenBucketRateLimiter(ratePerMinute, burst);
+        submissionBulkhead = new Bulkhead("workflow submissions", maxConcurrent, maxQueue, maxWaitMs, targetQueueLatencyMs);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleBuckets() {
+        rateLimiter.evictIdle();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !SUBMISSION_PATH.matcher(request.getRequestURI()).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Matcher matcher = SUBMISSION_PATH.matcher(request.getRequestURI());
+        String username = matcher.matches() ? matcher.group(1) : "";
+
+        long waitMs = rateLimiter.tryAcquire(username);
+        if (waitMs > 0) {
+            reject(response, new ServiceOverloadedException(
+                    "Too many submissions for " + username, 429, Math.max(1, (waitMs + 999) / 1000)));
+            return;
+        }
+
+        try {
+            submissionBulkhead.execute(() -> {
+                try {
+                    chain.doFilter(request, response);
+                } catch (IOException | ServletException e) {
+                    throw new FilterChainException(e);
+                }
+                return null;
+            });
+        } catch (ServiceOverloadedException e) {
+            reject(response, e);
+        } catch (FilterChainException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw (ServletException) e.getCause();
+        }
+    }
+
+    private void reject(HttpServletResponse response, ServiceOverloadedException e) throws IOException {
+        response.setStatus(e.getStatus());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of(
+                "error", e.getMessage(),
+                "retryAfterSeconds", e.getRetryAfterSeconds()));
+    }
+
+    private static class FilterChainException extends RuntimeException {
+        FilterChainException(Exception cause) {
+            super(cause);
+        }
+    }
+}
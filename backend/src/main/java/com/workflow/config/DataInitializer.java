@@ -2,34 +2,53 @@ package com.workflow.config;
 
 import com.workflow.model.User;
 import com.workflow.repository.UserRepository;
+import com.workflow.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class DataInitializer implements CommandLineRunner {
     
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    // With async seeding the app starts serving before the default users exist
+    @Value("${workflow.seed.async:false}")
+    private boolean async;
     
     @Override
     public void run(String... args) throws Exception {
-        userRepository.deleteAll();
-        
+        if (async) {
+            Thread seeder = new Thread(this::seedUsers, "data-initializer");
+            seeder.setDaemon(true);
+            seeder.start();
+        } else {
+            seedUsers();
+        }
+    }
+
+    private void seedUsers() {
         System.out.println("Creating users...");
-        
-        User admin = new User("admin", "admin@company.com", "admin123", "ADMIN", "IT");
-        admin.setPassword("admin123");
-        userRepository.save(admin);
-        
-        User manager = new User("manager", "manager@company.com", "manager123", "MANAGER", "Engineering");
-        manager.setPassword("manager123");
-        userRepository.save(manager);
-        
-        User user = new User("user", "user@company.com", "user123", "USER", "Engineering");
-        user.setPassword("user123");
-        userRepository.save(user);
-        
+
+        List<User> defaults = List.of(
+                new User("admin", "admin@company.com", "admin123", "ADMIN", "IT"),
+                new User("manager", "manager@company.com", "manager123", "MANAGER", "Engineering"),
+                new User("user", "user@company.com", "user123", "USER", "Engineering"));
+
+        // Only create what is missing instead of wiping the table on every boot
+        for (User user : defaults) {
+            if (!userRepository.existsByUsername(user.getUsername())) {
+                userService.createUser(user);
+            }
+        }
+
         System.out.println("Users created!");
     }
 }
@@ -0,0 +1,35 @@
+package com.workflow.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Configuration
+@Profile("fast-startup")
+public class FastStartupConfig {
+
+    // Keep the persistence stack eager so the first request doesn't pay for Hibernate bootstrap,
+    // and keep beans with @Scheduled methods eager since lazy ones would never be scheduled
+    @Bean
+    static LazyInitializationExcludeFilter criticalBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && (
+                DataSource.class.isAssignableFrom(beanType)
+                        || EntityManagerFactory.class.isAssignableFrom(beanType)
+                        || hasScheduledMethods(beanType));
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType,
+                method -> found.set(true),
+                method -> method.isAnnotationPresent(Scheduled.class));
+        return found.get();
+    }
+}
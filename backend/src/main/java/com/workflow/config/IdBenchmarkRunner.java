@@ -0,0 +1,124 @@
+package com.workflow.config;
+
+import com.workflow.model.Ids;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Compares insert throughput and on-disk table+index size for the old random string
+// keys and the time-ordered binary keys, then exits.
+// Run with --spring.profiles.active=id-benchmark [--workflow.id-benchmark.rows=1000000]
+@Component
+@Profile("id-benchmark")
+public class IdBenchmarkRunner implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Value("${workflow.id-benchmark.rows:1000000}")
+    private int rows;
+
+    @Value("${workflow.id-benchmark.dir:target/id-benchmark}")
+    private String directory;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Path dir = Paths.get(directory).toAbsolutePath();
+        deleteRecursively(dir);
+        Files.createDirectories(dir);
+
+        System.out.println("Inserting " + rows + " rows per scheme (primary key + indexed reference column)");
+        bench(dir, "varchar-uuid-v4", "VARCHAR(36)", () -> UUID.randomUUID().toString());
+        bench(dir, "binary-uuid-v4", "UUID", UUID::randomUUID);
+        bench(dir, "binary-uuid-v7", "UUID", Ids::newId);
+        bench(dir, "bigint-sequence", "BIGINT", new Supplier<Object>() {
+            private long next = 1;
+
+            @Override
+            public Object get() {
+                return next++;
+            }
+        });
+
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    private void bench(Path dir, String name, String keyType, Supplier<Object> ids) throws SQLException {
+        String url = "jdbc:h2:file:" + dir.resolve(name) + ";DB_CLOSE_ON_EXIT=FALSE";
+        Object[] keys = new Object[rows];
+        for (int i = 0; i < rows; i++) {
+            keys[i] = ids.get();
+        }
+        SplittableRandom rnd = new SplittableRandom(7);
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            try (Statement ddl = connection.createStatement()) {
+                // ref_id stands in for user_id / approved_by: a second index over the same key type
+                ddl.execute("CREATE TABLE bench (id " + keyType + " PRIMARY KEY, ref_id " + keyType + ", payload VARCHAR(64))");
+                ddl.execute("CREATE INDEX bench_ref ON bench(ref_id)");
+            }
+            connection.setAutoCommit(false);
+
+            long start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO bench VALUES (?, ?, ?)")) {
+                for (int i = 0; i < rows; i++) {
+                    insert.setObject(1, keys[i]);
+                    insert.setObject(2, keys[rnd.nextInt(i + 1)]);
+                    insert.setString(3, "row " + i);
+                    insert.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            }
+            long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+            long bytes;
+            try (Statement query = connection.createStatement()) {
+                query.execute("CHECKPOINT SYNC");
+                try (ResultSet rs = query.executeQuery("SELECT DISK_SPACE_USED('BENCH')")) {
+                    rs.next();
+                    bytes = rs.getLong(1);
+                }
+            }
+            System.out.printf("%-18s %10d rows/s %10.1f MB table+indexes%n",
+                    name, rows * 1000L / elapsedMs, bytes / (1024.0 * 1024.0));
+        }
+    }
+
+    private void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
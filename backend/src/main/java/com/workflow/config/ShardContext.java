@@ -0,0 +1,22 @@
+package com.workflow.config;
+
+// Holds the shard the current thread should talk to. Read by ShardRoutingDataSource
+// whenever a connection is acquired, so it must be set before a transaction starts.
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
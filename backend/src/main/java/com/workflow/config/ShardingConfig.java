@@ -0,0 +1,40 @@
+package com.workflow.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Replaces the single datasource with one H2 database per shard when sharding is enabled
+@Configuration
+@ConditionalOnProperty(name = "workflow.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Value("${workflow.sharding.shard-count:4}") int shardCount,
+                                 @Value("${workflow.sharding.url-template:jdbc:h2:mem:workflowdb_shard%d}") String urlTemplate,
+                                 @Value("${spring.datasource.username}") String username,
+                                 @Value("${spring.datasource.password}") String password) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("workflow.sharding.shard-count must be at least 1");
+        }
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(DataSourceBuilder.create()
+                    .driverClassName("org.h2.Driver")
+                    .url(String.format(urlTemplate, i))
+                    .username(username)
+                    .password(password)
+                    .build());
+        }
+        System.out.println("Sharding enabled with " + shardCount + " shards");
+        return new ShardRoutingDataSource(shards);
+    }
+}
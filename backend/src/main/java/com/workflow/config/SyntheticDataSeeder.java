@@ -0,0 +1,307 @@
+package com.workflow.config;
+
+import com.workflow.model.Ids;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bulk-loads production-sized synthetic data for benchmarks and load tests.
+// Every row is derived from (seed, row index) alone, so a given seed always yields
+// the same data regardless of thread count or chunk size. The timestamp columns are
+// anchored to the moment seeding starts, but ids are not: their time bits count from
+// a fixed epoch derived from the seed, so the same seed gives the same ids on every run.
+// Run with --spring.profiles.active=seed (see application-seed.properties).
+@Component
+@Profile("seed")
+@Order(100)
+public class SyntheticDataSeeder implements CommandLineRunner {
+
+    private static final String[] DEPARTMENTS = {"Engineering", "Sales", "Operations", "IT", "Finance", "Marketing", "HR"};
+    private static final double[] DEPARTMENT_WEIGHTS = {0.30, 0.15, 0.15, 0.12, 0.10, 0.10, 0.08};
+
+    private static final String[] TYPES = {"LEAVE", "PURCHASE", "PROJECT", "BUDGET"};
+    private static final double[] TYPE_WEIGHTS = {0.40, 0.30, 0.15, 0.15};
+    // Log-normal amount per type (median, sigma); leave requests carry no amount
+    private static final double[] AMOUNT_MEDIAN = {0, 800, 25000, 15000};
+    private static final double[] AMOUNT_SIGMA = {0, 1.0, 1.1, 0.9};
+    private static final double[] APPROVAL_RATE = {0.85, 0.70, 0.60, 0.50};
+
+    private static final int MANAGER_EVERY = 25;
+    private static final long USER_ID_SALT = 0x5EED0001L;
+    private static final long WORKFLOW_ID_SALT = 0x5EED0002L;
+    private static final long ID_EPOCH_SALT = 0x5EED0003L;
+    // 2020-01-01T00:00:00Z; each seed shifts its id epoch by up to a year from here
+    private static final long ID_EPOCH_BASE_MILLIS = 1_577_836_800_000L;
+    private static final long YEAR_MILLIS = 365L * 24 * 60 * 60 * 1000;
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, username, email, password, role, department) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_WORKFLOW =
+            "INSERT INTO workflows (id, title, description, type, status, amount, created_at, updated_at, user_id, approved_by, department, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    @Autowired
+    private WorkflowShards shards;
+
+    @Value("${workflow.seed.synthetic.users:1000000}")
+    private int userCount;
+
+    @Value("${workflow.seed.synthetic.workflows:2000000}")
+    private long workflowCount;
+
+    @Value("${workflow.seed.synthetic.seed:42}")
+    private long seed;
+
+    @Value("${workflow.seed.synthetic.years:3}")
+    private int years;
+
+    @Value("${workflow.seed.synthetic.chunk-size:10000}")
+    private int chunkSize;
+
+    @Value("${workflow.seed.synthetic.threads:0}")
+    private int threads;
+
+    private LocalDateTime now;
+    private long idEpochMillis;
+    private int[][] managersByDepartment;
+
+    @Override
+    public void run(String... args) throws Exception {
+        now = LocalDateTime.now().withNano(0);
+        idEpochMillis = ID_EPOCH_BASE_MILLIS + Math.floorMod(mix(seed, ID_EPOCH_SALT), YEAR_MILLIS);
+        managersByDepartment = indexManagers();
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(poolSize);
+        try {
+            long start = System.currentTimeMillis();
+            // Users first: every shard needs them before workflows can reference them
+            runChunks(pool, userCount, this::insertUsers);
+            long usersDone = System.currentTimeMillis();
+            System.out.println("Seeded " + userCount + " users in " + (usersDone - start) + " ms");
+
+            runChunks(pool, workflowCount, this::insertWorkflows);
+            long elapsed = Math.max(1, System.currentTimeMillis() - usersDone);
+            System.out.println("Seeded " + workflowCount + " workflows in " + elapsed + " ms ("
+                    + (workflowCount * 1000 / elapsed) + " rows/s)");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private interface ChunkLoader {
+        void load(long from, long to) throws SQLException;
+    }
+
+    private void runChunks(ExecutorService pool, long total, ChunkLoader loader) throws Exception {
+        AtomicLong loaded = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>();
+        for (long from = 0; from < total; from += chunkSize) {
+            long chunkStart = from;
+            long chunkEnd = Math.min(total, from + chunkSize);
+            futures.add(pool.submit(() -> {
+                loader.load(chunkStart, chunkEnd);
+                long done = loaded.addAndGet(chunkEnd - chunkStart);
+                if (done % (chunkSize * 50L) < chunkEnd - chunkStart) {
+                    System.out.println("  ... " + done + " / " + total);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private void insertUsers(long from, long to) throws SQLException {
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            try (Connection connection = shards.dataSource(shard).getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement insert = connection.prepareStatement(INSERT_USER)) {
+                    for (long i = from; i < to; i++) {
+                        int index = (int) i;
+                        insert.setObject(1, userId(index));
+                        insert.setString(2, "seed" + index);
+                        insert.setString(3, "seed" + index + "@example.com");
+                        insert.setString(4, "password");
+                        insert.setString(5, isManager(index) ? "MANAGER" : "USER");
+                        insert.setString(6, DEPARTMENTS[departmentOf(index)]);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+                connection.commit();
+            }
+        }
+    }
+
+    private void insertWorkflows(long from, long to) throws SQLException {
+        int shardCount = shards.shardCount();
+        Connection[] connections = new Connection[shardCount];
+        PreparedStatement[] inserts = new PreparedStatement[shardCount];
+        try {
+            for (long j = from; j < to; j++) {
+                SplittableRandom rnd = new SplittableRandom(mix(seed ^ WORKFLOW_ID_SALT, j));
+                int submitter = rnd.nextInt(userCount);
+                int department = departmentOf(submitter);
+                int shard = shards.shardFor(DEPARTMENTS[department]);
+                if (inserts[shard] == null) {
+                    connections[shard] = shards.dataSource(shard).getConnection();
+                    connections[shard].setAutoCommit(false);
+                    inserts[shard] = connections[shard].prepareStatement(INSERT_WORKFLOW);
+                }
+                bindWorkflow(inserts[shard], j, rnd, submitter, department);
+                inserts[shard].addBatch();
+            }
+            for (int shard = 0; shard < shardCount; shard++) {
+                if (inserts[shard] != null) {
+                    inserts[shard].executeBatch();
+                    connections[shard].commit();
+                }
+            }
+        } finally {
+            for (int shard = 0; shard < shardCount; shard++) {
+                if (inserts[shard] != null) {
+                    inserts[shard].close();
+                }
+                if (connections[shard] != null) {
+                    connections[shard].close();
+                }
+            }
+        }
+    }
+
+    private void bindWorkflow(PreparedStatement insert, long index, SplittableRandom rnd, int submitter, int department)
+            throws SQLException {
+        int type = pick(TYPE_WEIGHTS, rnd.nextDouble());
+
+        // Skew creation times towards the present so volume grows over the years
+        double age = 1 - Math.sqrt(rnd.nextDouble());
+        long ageMinutes = (long) (age * years * 365 * 24 * 60);
+        LocalDateTime createdAt = now.minusMinutes(ageMinutes);
+
+        Double amount = null;
+        if (AMOUNT_MEDIAN[type] > 0) {
+            double raw = AMOUNT_MEDIAN[type] * Math.exp(AMOUNT_SIGMA[type] * gaussian(rnd));
+            amount = Math.round(raw * 100) / 100.0;
+        }
+
+        // Decisions take an exponentially distributed number of hours (mean two days);
+        // anything whose decision time is still in the future is pending
+        long decisionHours = (long) (-Math.log(1 - rnd.nextDouble()) * 48);
+        LocalDateTime decidedAt = createdAt.plusHours(decisionHours);
+        String status;
+        LocalDateTime updatedAt;
+        UUID approver = null;
+        if (decidedAt.isAfter(now)) {
+            status = "PENDING";
+            updatedAt = createdAt;
+        } else {
+            double approvalRate = APPROVAL_RATE[type] - (amount != null && amount > 10000 ? 0.15 : 0);
+            status = rnd.nextDouble() < approvalRate ? "APPROVED" : "REJECTED";
+            updatedAt = decidedAt;
+            int[] managers = managersByDepartment[department];
+            if (managers.length > 0) {
+                approver = userId(managers[rnd.nextInt(managers.length)]);
+            }
+        }
+
+        insert.setObject(1, workflowId(index, ageMinutes));
+        insert.setString(2, TYPES[type].charAt(0) + TYPES[type].substring(1).toLowerCase() + " request #" + index);
+        insert.setString(3, "Synthetic " + TYPES[type].toLowerCase() + " request for " + DEPARTMENTS[department]);
+        insert.setString(4, TYPES[type]);
+        insert.setString(5, status);
+        if (amount != null) {
+            insert.setDouble(6, amount);
+        } else {
+            insert.setNull(6, Types.DOUBLE);
+        }
+        insert.setTimestamp(7, Timestamp.valueOf(createdAt));
+        insert.setTimestamp(8, Timestamp.valueOf(updatedAt));
+        insert.setObject(9, userId(submitter));
+        insert.setObject(10, approver);
+        insert.setString(11, DEPARTMENTS[department]);
+    }
+
+    private int[][] indexManagers() {
+        List<List<Integer>> perDepartment = new ArrayList<>();
+        for (int d = 0; d < DEPARTMENTS.length; d++) {
+            perDepartment.add(new ArrayList<>());
+        }
+        for (int i = 0; i < userCount; i += MANAGER_EVERY) {
+            perDepartment.get(departmentOf(i)).add(i);
+        }
+        int[][] managers = new int[DEPARTMENTS.length][];
+        for (int d = 0; d < DEPARTMENTS.length; d++) {
+            managers[d] = perDepartment.get(d).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return managers;
+    }
+
+    private boolean isManager(int userIndex) {
+        return userIndex % MANAGER_EVERY == 0;
+    }
+
+    private int departmentOf(int userIndex) {
+        return pick(DEPARTMENT_WEIGHTS, unitDouble(mix(seed ^ USER_ID_SALT, userIndex)));
+    }
+
+    // Same time-ordered layout as Ids.newId(), with the time and random bits taken from the seed
+    private UUID userId(int userIndex) {
+        return Ids.timeOrdered(idEpochMillis + userIndex, mix(seed, USER_ID_SALT), userIndex);
+    }
+
+    // Workflow ids sit at the same distance from the end of the seeded span as created_at
+    // does from now, so id order still follows creation order
+    private UUID workflowId(long workflowIndex, long ageMinutes) {
+        long createdMillis = idEpochMillis + years * YEAR_MILLIS - ageMinutes * 60_000L;
+        return Ids.timeOrdered(createdMillis, mix(seed, WORKFLOW_ID_SALT), workflowIndex);
+    }
+
+    private static int pick(double[] weights, double u) {
+        double cumulative = 0;
+        for (int i = 0; i < weights.length; i++) {
+            cumulative += weights[i];
+            if (u < cumulative) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static double gaussian(SplittableRandom rnd) {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        double u1 = 1 - rnd.nextDouble();
+        double u2 = rnd.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    private static double unitDouble(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+
+    // SplitMix64 finalizer over both inputs
+    private static long mix(long a, long b) {
+        long z = a * 0x9E3779B97F4A7C15L + b;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
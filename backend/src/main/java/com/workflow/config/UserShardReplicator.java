@@ -0,0 +1,153 @@
+package com.workflow.config;
+
+import com.workflow.exception.ShardReplicationException;
+import com.workflow.model.User;
+import com.workflow.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Keeps the users table on every shard in step with shard 0, which is the source of truth.
+// Copies are idempotent MERGEs, so a failed copy can be retried or repeated by the periodic
+// re-sync without harm. Only transient failures are retried.
+@Component
+public class UserShardReplicator {
+
+    private static final String MERGE_USER =
+            "MERGE INTO users (id, username, email, password, role, department) KEY (id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int RESYNC_BATCH_SIZE = 1000;
+
+    @Autowired
+    private WorkflowShards shards;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${workflow.sharding.replication-attempts:3}")
+    private int replicationAttempts;
+
+    @Value("${workflow.sharding.replication-backoff-ms:200}")
+    private long replicationBackoffMs;
+
+    // Copies a user already saved on shard 0. Returns the shards that could not be updated;
+    // the user is usable anyway and those shards are caught up by resyncUsers.
+    public List<Integer> replicate(User user) {
+        Object[] row = {user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), user.getRole(), user.getDepartment()};
+        List<Integer> failedShards = new ArrayList<>();
+        for (int shard = 1; shard < shards.shardCount(); shard++) {
+            JdbcTemplate jdbc = new JdbcTemplate(shards.dataSource(shard));
+            try {
+                withRetry("copy user " + user.getUsername() + " to shard " + shard, () -> jdbc.update(MERGE_USER, row));
+            } catch (RuntimeException e) {
+                System.err.println("Could not copy user " + user.getUsername() + " to shard " + shard
+                        + ", leaving it to the re-sync: " + e.getMessage());
+                failedShards.add(shard);
+            }
+        }
+        return failedShards;
+    }
+
+    // Deletes the user on every shard so their workflows cascade everywhere. Shard 0 goes last,
+    // so after a failure the user is still intact there and the delete can simply be retried.
+    public void deleteEverywhere(UUID userId) {
+        List<Integer> order = new ArrayList<>();
+        for (int shard = shards.shardCount() - 1; shard >= 0; shard--) {
+            order.add(shard);
+        }
+        for (int i = 0; i < order.size(); i++) {
+            int shard = order.get(i);
+            try {
+                withRetry("delete user " + userId + " on shard " + shard,
+                        () -> shards.onShard(shard, () -> userRepository.findById(userId).ifPresent(userRepository::delete)));
+            } catch (RuntimeException e) {
+                List<Integer> remaining = new ArrayList<>(order.subList(i, order.size()));
+                String reason = e instanceof DataIntegrityViolationException
+                        ? "it is still referenced on shard " + shard + " (for example as the approver of a workflow)"
+                        : "shard " + shard + " failed: " + e.getMessage();
+                throw new ShardReplicationException("User " + userId + " could not be deleted, " + reason, remaining, e);
+            }
+        }
+    }
+
+    // Copies every user from shard 0 to the other shards, so a failed replication or a
+    // rebuilt shard converges at boot and then periodically
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${workflow.sharding.user-resync-interval-ms:300000}",
+            fixedDelayString = "${workflow.sharding.user-resync-interval-ms:300000}")
+    public void resyncUsers() {
+        if (shards.shardCount() == 1) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<Object[]> batch = new ArrayList<>(RESYNC_BATCH_SIZE);
+        long[] copied = {0};
+        new JdbcTemplate(shards.dataSource(0)).query("SELECT id, username, email, password, role, department FROM users", rs -> {
+            batch.add(new Object[]{rs.getObject("id"), rs.getString("username"), rs.getString("email"),
+                    rs.getString("password"), rs.getString("role"), rs.getString("department")});
+            if (batch.size() == RESYNC_BATCH_SIZE) {
+                copyBatchToShards(batch);
+                copied[0] += batch.size();
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            copyBatchToShards(batch);
+            copied[0] += batch.size();
+        }
+        System.out.println("Re-synced " + copied[0] + " users to " + (shards.shardCount() - 1) + " shards in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private void copyBatchToShards(List<Object[]> batch) {
+        for (int shard = 1; shard < shards.shardCount(); shard++) {
+            JdbcTemplate jdbc = new JdbcTemplate(shards.dataSource(shard));
+            try {
+                withRetry("re-sync " + batch.size() + " users to shard " + shard, () -> jdbc.batchUpdate(MERGE_USER, batch));
+            } catch (RuntimeException e) {
+                // Picked up again on the next run
+                System.err.println("Could not re-sync users to shard " + shard + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void withRetry(String action, Runnable work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                work.run();
+                return;
+            } catch (RuntimeException e) {
+                // Constraint violations and the like fail the same way every time
+                if (!isTransient(e) || attempt >= replicationAttempts) {
+                    throw e;
+                }
+                System.err.println("Retrying " + action + " after attempt " + attempt + ": " + e.getMessage());
+            }
+            try {
+                Thread.sleep(replicationBackoffMs * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while trying to " + action, e);
+            }
+        }
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+}
@@ -0,0 +1,134 @@
+package com.workflow.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+// Shard topology plus helpers to run work on one shard or fan out across all of them.
+// Without sharding there is exactly one shard and everything runs inline.
+@Component
+public class WorkflowShards {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${workflow.sharding.fan-out-threads:8}")
+    private int fanOutThreads;
+
+    @Value("${workflow.sharding.fan-out-queue:256}")
+    private int fanOutQueue;
+
+    private List<DataSource> shards;
+    private ExecutorService fanOutExecutor;
+
+    @PostConstruct
+    void init() {
+        if (dataSource instanceof ShardRoutingDataSource routing) {
+            shards = routing.getShards();
+        } else {
+            shards = List.of(dataSource);
+        }
+        if (shards.size() > 1) {
+            AtomicInteger threadCount = new AtomicInteger();
+            // Bounded queue; when it fills up the caller runs the shard query itself
+            fanOutExecutor = new ThreadPoolExecutor(fanOutThreads, fanOutThreads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(fanOutQueue),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "shard-fan-out-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            createSchemaOnSecondaryShards();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdownNow();
+        }
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public int shardFor(String department) {
+        return Math.floorMod(department == null ? 0 : department.hashCode(), shards.size());
+    }
+
+    public DataSource dataSource(int shard) {
+        return shards.get(shard);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    public void onShard(int shard, Runnable work) {
+        onShard(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // Runs the task once per shard in parallel and returns the results in shard order
+    public <T> List<T> fanOut(IntFunction<T> task) {
+        if (shards.size() == 1) {
+            return Collections.singletonList(onShard(0, () -> task.apply(0)));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            int shard = i;
+            futures.add(CompletableFuture.supplyAsync(() -> onShard(shard, () -> task.apply(shard)), fanOutExecutor));
+        }
+        List<T> results = new ArrayList<>(shards.size());
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    // Hibernate only generates the schema through the default (shard 0) connection at boot
+    private void createSchemaOnSecondaryShards() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        for (int i = 1; i < shards.size(); i++) {
+            onShard(i, () -> sessionFactory.getSchemaManager().exportMappedObjects(true));
+        }
+    }
+}
@@ -5,6 +5,8 @@ import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,7 +18,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.workflow.exception.ShardReplicationException;
 import com.workflow.model.User;
+import com.workflow.service.ReadCoalescer;
 import com.workflow.service.UserService;
 
 @RestController
@@ -24,32 +28,43 @@ import com.workflow.service.UserService;
 @CrossOrigin(origins = "*")
 public class UserController {
     
+    private static final List<String> USER_SCOPES = List.of(ReadCoalescer.USERS);
+
     @Autowired
     private UserService userService;
+
+    @Autowired
+    private ReadCoalescer readCoalescer;
     
     @GetMapping
-    public List<User> getAllUsers() {
+    public ResponseEntity<byte[]> getAllUsers() {
         System.out.println("📋 Fetching all users from database");
-        List<User> users = userService.getAllUsers();
-        users.forEach(user -> user.setPassword(null));
-        System.out.println("Found " + users.size() + " users");
-        return users;
+        return json(readCoalescer.read("users:all", USER_SCOPES, () -> {
+            List<User> users = userService.getAllUsers();
+            users.forEach(user -> user.setPassword(null));
+            System.out.println("Found " + users.size() + " users");
+            return users;
+        }));
     }
     
     @GetMapping("/role/{role}")
-    public List<User> getUsersByRole(@PathVariable String role) {
+    public ResponseEntity<byte[]> getUsersByRole(@PathVariable String role) {
         System.out.println("Fetching users by role: " + role);
-        List<User> users = userService.getUsersByRole(role);
-        users.forEach(user -> user.setPassword(null));
-        return users;
+        return json(readCoalescer.read("users:role:" + role, USER_SCOPES, () -> {
+            List<User> users = userService.getUsersByRole(role);
+            users.forEach(user -> user.setPassword(null));
+            return users;
+        }));
     }
     
     @GetMapping("/department/{department}")
-    public List<User> getUsersByDepartment(@PathVariable String department) {
+    public ResponseEntity<byte[]> getUsersByDepartment(@PathVariable String department) {
         System.out.println("Fetching users by department: " + department);
-        List<User> users = userService.getUsersByDepartment(department);
-        users.forEach(user -> user.setPassword(null));
-        return users;
+        return json(readCoalescer.read("users:department:" + department, USER_SCOPES, () -> {
+            List<User> users = userService.getUsersByDepartment(department);
+            users.forEach(user -> user.setPassword(null));
+            return users;
+        }));
     }
     
     @PostMapping
@@ -87,6 +102,11 @@ public class UserController {
             userService.deleteUser(userId);
             System.out.println("User deleted successfully: " + userId);
             return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
+        } catch (ShardReplicationException e) {
+            System.err.println("Partial failure deleting user: " + e.getMessage());
+            // Still referenced somewhere (e.g. as an approver): retrying won't help, so report a conflict
+            int status = e.getCause() instanceof DataIntegrityViolationException ? 409 : 500;
+            return ResponseEntity.status(status).body(Map.of("error", e.getMessage(), "failedShards", e.getFailedShards()));
         } catch (Exception e) {
             System.err.println("Error deleting user: " + e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -96,12 +116,19 @@ public class UserController {
     @GetMapping("/{userId}")
     public ResponseEntity<?> getUserById(@PathVariable String userId) {
         System.out.println("Fetching user by ID: " + userId);
-        Optional<User> user = userService.getUserById(userId);
-        if (user.isPresent()) {
-            user.get().setPassword(null);
-            return ResponseEntity.ok(user.get());
+        byte[] body = readCoalescer.read("users:id:" + userId, USER_SCOPES, () -> {
+            Optional<User> user = userService.getUserById(userId);
+            user.ifPresent(u -> u.setPassword(null));
+            return user.orElse(null);
+        });
+        if (body != null) {
+            return json(body);
         } else {
             return ResponseEntity.notFound().build();
         }
     }
+
+    private ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
@@ -2,12 +2,21 @@ package com.workflow.controller;
 
 import com.workflow.model.User;
 import com.workflow.model.Workflow;
+import com.workflow.service.ReadCoalescer;
 import com.workflow.service.UserService;
+import com.workflow.service.WorkflowExportService;
 import com.workflow.service.WorkflowService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -23,24 +32,40 @@ public class WorkflowController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private WorkflowExportService workflowExportService;
+
+    @Autowired
+    private ReadCoalescer readCoalescer;
+
+    // Read endpoints go through the coalescer, so identical concurrent requests share one
+    // query and one serialized body
+
     @GetMapping
-    public List<Workflow> getAllWorkflows() {
-        return workflowService.getAllWorkflows();
+    public ResponseEntity<byte[]> getAllWorkflows(@RequestParam(defaultValue = "false") boolean includeArchived) {
+        return json(readCoalescer.read("workflows:all:" + includeArchived, ReadCoalescer.allWorkflowScopes(),
+                () -> workflowService.getAllWorkflows(includeArchived)));
     }
 
     @GetMapping("/user/{username}")
-    public List<Workflow> getUserWorkflows(@PathVariable String username) {
-        return workflowService.getUserWorkflows(username);
+    public ResponseEntity<byte[]> getUserWorkflows(@PathVariable String username,
+                                                   @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return json(readCoalescer.read("workflows:user:" + username + ":" + includeArchived, ReadCoalescer.allWorkflowScopes(),
+                () -> workflowService.getUserWorkflows(username, includeArchived)));
     }
 
     @GetMapping("/department/{department}")
-    public List<Workflow> getDepartmentWorkflows(@PathVariable String department) {
-        return workflowService.getDepartmentWorkflows(department);
+    public ResponseEntity<byte[]> getDepartmentWorkflows(@PathVariable String department,
+                                                         @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return json(readCoalescer.read("workflows:department:" + department + ":" + includeArchived,
+                ReadCoalescer.departmentScopes(department),
+                () -> workflowService.getDepartmentWorkflows(department, includeArchived)));
     }
 
     @GetMapping("/pending/{department}")
-    public List<Workflow> getPendingWorkflows(@PathVariable String department) {
-        return workflowService.getPendingWorkflows(department);
+    public ResponseEntity<byte[]> getPendingWorkflows(@PathVariable String department) {
+        return json(readCoalescer.read("workflows:pending:" + department, ReadCoalescer.departmentScopes(department),
+                () -> workflowService.getPendingWorkflows(department)));
     }
 
     @PostMapping("/{username}")
@@ -57,6 +82,20 @@ public class WorkflowController {
         }
     }
 
+    @PutMapping("/{workflowId}")
+    public ResponseEntity<?> updateWorkflow(@PathVariable String workflowId, @RequestBody Workflow workflow) {
+        try {
+            Optional<Workflow> updatedWorkflow = workflowService.updateWorkflow(workflowId, workflow);
+            return updatedWorkflow.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("error", "Workflow was changed by another request, reload and retry"));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PutMapping("/{workflowId}/status")
     public ResponseEntity<?> updateStatus(@PathVariable String workflowId, @RequestBody Map<String, String> request) {
         String status = request.get("status");
@@ -69,19 +108,69 @@ public class WorkflowController {
         try {
             Optional<Workflow> updatedWorkflow = workflowService.updateWorkflowStatus(workflowId, status, managerUsername);
             return updatedWorkflow.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("error", "Workflow was changed by another request, reload and retry"));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
     }
 
+    @GetMapping("/export.csv")
+    public ResponseEntity<StreamingResponseBody> exportCsv(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> workflowExportService.exportCsv(from, to, department, status, gzip, out);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"workflows.csv\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/analytics")
-    public Object getAnalytics() {
-        return workflowService.getAnalytics();
+    public ResponseEntity<byte[]> getAnalytics() {
+        return json(readCoalescer.read("workflows:analytics", ReadCoalescer.allWorkflowScopes(),
+                workflowService::getAnalytics));
+    }
+
+    @GetMapping("/analytics/distributions")
+    public ResponseEntity<byte[]> getDistributions(@RequestParam(required = false) String department,
+                                                   @RequestParam(required = false) String type) {
+        return json(readCoalescer.read("workflows:distributions:" + department + ":" + type, ReadCoalescer.allWorkflowScopes(),
+                () -> workflowService.getDistributions(department, type)));
+    }
+
+    // Multi-valued filters take comma-separated values, e.g. ?department=IT,Finance&status=PENDING
+    @GetMapping("/query")
+    public ResponseEntity<byte[]> queryWorkflows(
+            @RequestParam(required = false) List<String> department,
+            @RequestParam(required = false) List<String> type,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) Double minAmount,
+            @RequestParam(required = false) Double maxAmount,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "100") int limit) {
+        int boundedLimit = Math.max(0, Math.min(limit, 1000));
+        String key = "workflows:query:" + department + ":" + type + ":" + status + ":" + minAmount + ":" + maxAmount
+                + ":" + from + ":" + to + ":" + boundedLimit;
+        return json(readCoalescer.read(key, ReadCoalescer.allWorkflowScopes(),
+                () -> workflowService.queryWorkflows(department, type, status, minAmount, maxAmount, from, to, boundedLimit)));
     }
 
 
     @GetMapping("/{workflowId}/ai-prediction")
-    public Object getAIPrediction(@PathVariable String workflowId) {
-        return workflowService.getAIPrediction(workflowId);
+    public ResponseEntity<byte[]> getAIPrediction(@PathVariable String workflowId) {
+        return json(readCoalescer.read("workflows:prediction:" + workflowId, ReadCoalescer.allWorkflowScopes(),
+                () -> workflowService.getAIPrediction(workflowId)));
+    }
+
+    private ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 }
@@ -1,5 +1,6 @@
 package com.workflow.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -9,6 +10,18 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<?> handleOverloaded(ServiceOverloadedException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", e.getMessage());
+        response.put("retryAfterSeconds", e.getRetryAfterSeconds());
+        response.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleAllExceptions(Exception e) {
         System.err.println("GLOBAL EXCEPTION: " + e.getMessage());
@@ -0,0 +1,22 @@
+package com.workflow.exception;
+
+// Thrown when a request is shed by rate limiting or a full bulkhead
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final int status;
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, int status, long retryAfterSeconds) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package com.workflow.exception;
+
+import java.util.List;
+
+// Thrown when a user change was applied on some shards but not on all of them
+public class ShardReplicationException extends RuntimeException {
+
+    private final List<Integer> failedShards;
+
+    public ShardReplicationException(String message, List<Integer> failedShards, Throwable cause) {
+        super(message, cause);
+        this.failedShards = failedShards;
+    }
+
+    public List<Integer> getFailedShards() {
+        return failedShards;
+    }
+}
@@ -0,0 +1,181 @@
+package com.workflow.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Cold-tier copy of a decided workflow. User references are flattened to
+// usernames so archived rows carry no foreign keys into the live tables.
+@Entity
+@Table(name = "workflow_archive", indexes = {
+        @Index(name = "idx_archive_submitted_by", columnList = "submittedByUsername"),
+        @Index(name = "idx_archive_department", columnList = "department")
+})
+public class ArchivedWorkflow implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(length = 1000)
+    private String description;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(nullable = false)
+    private String status;
+
+    private Double amount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime archivedAt;
+
+    private String submittedByUsername;
+    private String approvedByUsername;
+    private String department;
+
+    // Last stored prediction, kept so archived history still shows what the model said
+    private Double approvalProbability;
+    private String suggestion;
+    private String modelVersion;
+    private LocalDateTime predictedAt;
+
+    // Ids are copied from the live row, so tell Spring Data to insert rather than merge
+    @Transient
+    private boolean newEntry = true;
+
+    public ArchivedWorkflow() {}
+
+    public static ArchivedWorkflow from(Workflow workflow) {
+        ArchivedWorkflow archived = new ArchivedWorkflow();
+        archived.id = workflow.getId();
+        archived.title = workflow.getTitle();
+        archived.description = workflow.getDescription();
+        archived.type = workflow.getType();
+        archived.status = workflow.getStatus();
+        archived.amount = workflow.getAmount();
+        archived.createdAt = workflow.getCreatedAt();
+        archived.updatedAt = workflow.getUpdatedAt();
+        archived.archivedAt = LocalDateTime.now();
+        archived.submittedByUsername = workflow.getSubmittedBy() != null ? workflow.getSubmittedBy().getUsername() : null;
+        archived.approvedByUsername = workflow.getApprovedBy() != null ? workflow.getApprovedBy().getUsername() : null;
+        archived.department = workflow.getDepartment();
+        archived.approvalProbability = workflow.getApprovalProbability();
+        archived.suggestion = workflow.getSuggestion();
+        archived.modelVersion = workflow.getModelVersion();
+        archived.predictedAt = workflow.getPredictedAt();
+        return archived;
+    }
+
+    // Detached view in the same shape the live API returns
+    public Workflow toWorkflow() {
+        Workflow workflow = new Workflow();
+        workflow.setId(id);
+        workflow.setTitle(title);
+        workflow.setDescription(description);
+        workflow.setType(type);
+        workflow.setStatus(status);
+        workflow.setAmount(amount);
+        workflow.setCreatedAt(createdAt);
+        workflow.setUpdatedAt(updatedAt);
+        workflow.setDepartment(department);
+        workflow.setApprovalProbability(approvalProbability);
+        workflow.setSuggestion(suggestion);
+        workflow.setModelVersion(modelVersion);
+        workflow.setPredictedAt(predictedAt);
+        if (submittedByUsername != null) {
+            workflow.setSubmittedBy(userStub(submittedByUsername));
+        }
+        if (approvedByUsername != null) {
+            workflow.setApprovedBy(userStub(approvedByUsername));
+        }
+        return workflow;
+    }
+
+    private User userStub(String username) {
+        User user = new User();
+        user.setUsername(username);
+        return user;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntry = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntry;
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public String getSubmittedByUsername() {
+        return submittedByUsername;
+    }
+
+    public String getApprovedByUsername() {
+        return approvedByUsername;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public Double getApprovalProbability() {
+        return approvalProbability;
+    }
+
+    public String getSuggestion() {
+        return suggestion;
+    }
+
+    public String getModelVersion() {
+        return modelVersion;
+    }
+
+    public LocalDateTime getPredictedAt() {
+        return predictedAt;
+    }
+}
@@ -0,0 +1,37 @@
+package com.workflow.model;
+
+import java.security.SecureRandom;
+import java.util.Optional;
+import java.util.UUID;
+
+// Time-ordered UUIDv7 ids (RFC 9562): 48-bit Unix millis, then random bits.
+// New rows land at the right-hand edge of the primary key B-tree instead of at random
+// pages, and ids are stored as 16-byte UUID columns rather than 36-char strings.
+public final class Ids {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private Ids() {}
+
+    public static UUID newId() {
+        return timeOrdered(System.currentTimeMillis(), RANDOM.nextLong(), RANDOM.nextLong());
+    }
+
+    public static UUID timeOrdered(long epochMillis, long randA, long randB) {
+        long mostSigBits = (epochMillis << 16) | 0x7000L | (randA & 0x0FFFL);
+        long leastSigBits = (randB & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    // API paths still carry ids as strings; older random (v4) ids parse the same way
+    public static Optional<UUID> parse(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(UUID.fromString(id));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
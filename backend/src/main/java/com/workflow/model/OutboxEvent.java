@@ -0,0 +1,115 @@
+package com.workflow.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Event written in the same transaction as the workflow change it describes and
+// deleted by OutboxRelay once the ML service has acknowledged it.
+@Entity
+@Table(name = "workflow_outbox", indexes = {
+        @Index(name = "idx_outbox_next_attempt", columnList = "nextAttemptAt")
+})
+public class OutboxEvent {
+
+    public static final String WORKFLOW_CREATED = "WORKFLOW_CREATED";
+    public static final String WORKFLOW_DECIDED = "WORKFLOW_DECIDED";
+
+    @Id
+    @TimeOrderedId
+    private UUID id;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    @Column(nullable = false)
+    private UUID workflowId;
+
+    // JSON snapshot of the workflow at the time of the change
+    @Column(length = 4000)
+    private String payload;
+
+    private LocalDateTime createdAt;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public OutboxEvent() {}
+
+    public static OutboxEvent of(String eventType, UUID workflowId, String payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.eventType = eventType;
+        event.workflowId = workflowId;
+        event.payload = payload;
+        event.createdAt = LocalDateTime.now();
+        event.nextAttemptAt = event.createdAt;
+        return event;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public UUID getWorkflowId() {
+        return workflowId;
+    }
+
+    public void setWorkflowId(UUID workflowId) {
+        this.workflowId = workflowId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -1,17 +1,18 @@
 package com.workflow.model;
 
-import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @Entity
 @Table(name = "users")
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
+    @TimeOrderedId
+    private UUID id;
 
     @Column(unique = true, nullable = false)
     private String username;
@@ -27,8 +28,10 @@ public class User {
 
     private String department;
 
+    // Not serialized: with sharding a user's workflows live on several databases and
+    // lazy-loading them from a detached user would fail; use /api/workflows/user/{username}
     @OneToMany(mappedBy = "submittedBy", cascade = CascadeType.ALL)
-    @JsonManagedReference
+    @JsonIgnore
     private List<Workflow> workflows = new ArrayList<>();
 
     public User() {}
@@ -41,11 +44,11 @@ public class User {
         this.department = department;
     }
 
-    public String getId() {
+    public UUID getId() {
         return id;
     }
 
-    public void setId(String id) {
+    public void setId(UUID id) {
         this.id = id;
     }
 
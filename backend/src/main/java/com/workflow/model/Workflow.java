@@ -1,16 +1,20 @@
 package com.workflow.model;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
-@Table(name = "workflows")
+@Table(name = "workflows", indexes = {
+        // Serves the archive job's oldest-decided-first batches without scanning and sorting the table
+        @Index(name = "idx_workflows_status_updated_at", columnList = "status, updatedAt")
+})
 public class Workflow {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
+    @TimeOrderedId
+    private UUID id;
 
     @Column(nullable = false)
     private String title;
@@ -30,7 +34,7 @@ public class Workflow {
 
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "user_id")
-    @JsonBackReference
+    @JsonIgnore
     private User submittedBy;
 
     @ManyToOne(fetch = FetchType.EAGER)
@@ -39,6 +43,16 @@ public class Workflow {
 
     private String department;
 
+    // Filled in asynchronously by PredictionPipeline after submission and after each edit
+    private Double approvalProbability;
+    private String suggestion;
+    private String modelVersion;
+    private LocalDateTime predictedAt;
+
+    // Guards read-check-save paths (edits, decisions) against overwriting a concurrent change
+    @Version
+    private long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -62,11 +76,11 @@ public class Workflow {
         this.status = "PENDING";
     }
 
-    public String getId() {
+    public UUID getId() {
         return id;
     }
 
-    public void setId(String id) {
+    public void setId(UUID id) {
         this.id = id;
     }
 
@@ -142,6 +156,10 @@ public class Workflow {
         this.approvedBy = approvedBy;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public String getDepartment() {
         return department;
     }
@@ -150,6 +168,38 @@ public class Workflow {
         this.department = department;
     }
 
+    public Double getApprovalProbability() {
+        return approvalProbability;
+    }
+
+    public void setApprovalProbability(Double approvalProbability) {
+        this.approvalProbability = approvalProbability;
+    }
+
+    public String getSuggestion() {
+        return suggestion;
+    }
+
+    public void setSuggestion(String suggestion) {
+        this.suggestion = suggestion;
+    }
+
+    public String getModelVersion() {
+        return modelVersion;
+    }
+
+    public void setModelVersion(String modelVersion) {
+        this.modelVersion = modelVersion;
+    }
+
+    public LocalDateTime getPredictedAt() {
+        return predictedAt;
+    }
+
+    public void setPredictedAt(LocalDateTime predictedAt) {
+        this.predictedAt = predictedAt;
+    }
+
     @Override
     public String toString() {
         return "Workflow{" +
@@ -0,0 +1,18 @@
+package com.workflow.repository;
+
+import com.workflow.model.ArchivedWorkflow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedWorkflowRepository extends JpaRepository<ArchivedWorkflow, UUID> {
+
+    List<ArchivedWorkflow> findBySubmittedByUsername(String username);
+
+    List<ArchivedWorkflow> findByDepartment(String department);
+
+    long countByStatus(String status);
+}
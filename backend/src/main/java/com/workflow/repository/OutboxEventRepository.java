@@ -0,0 +1,16 @@
+package com.workflow.repository;
+
+import com.workflow.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    List<OutboxEvent> findByNextAttemptAtLessThanEqualOrderByCreatedAtAsc(LocalDateTime now, Pageable pageable);
+}
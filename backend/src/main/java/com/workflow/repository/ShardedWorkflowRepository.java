@@ -0,0 +1,107 @@
+package com.workflow.repository;
+
+import com.workflow.config.WorkflowShards;
+import com.workflow.model.ArchivedWorkflow;
+import com.workflow.model.Workflow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// Routes department-scoped workflow queries to their shard and fans global ones out to all shards
+@Repository
+public class ShardedWorkflowRepository {
+
+    @Autowired
+    private WorkflowShards shards;
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private ArchivedWorkflowRepository archivedWorkflowRepository;
+
+    public Workflow save(Workflow workflow) {
+        return shards.onShard(shards.shardFor(workflow.getDepartment()), () -> workflowRepository.save(workflow));
+    }
+
+    public Optional<Workflow> findById(UUID id) {
+        return shards.fanOut(shard -> workflowRepository.findById(id)).stream()
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .findFirst();
+    }
+
+    // Single-shard lookup when the caller already knows the department
+    public Optional<Workflow> findById(UUID id, String department) {
+        return shards.onShard(shards.shardFor(department), () -> workflowRepository.findById(id));
+    }
+
+    public boolean storePrediction(Workflow scored, Double probability, String suggestion, String modelVersion) {
+        return shards.onShard(shards.shardFor(scored.getDepartment()), () -> workflowRepository.storePrediction(
+                scored.getId(), scored.getUpdatedAt(), probability, suggestion, modelVersion, LocalDateTime.now())) > 0;
+    }
+
+    public List<Workflow> findAll() {
+        return concat(shards.fanOut(shard -> workflowRepository.findAll()));
+    }
+
+    public List<Workflow> findBySubmittedByUsername(String username) {
+        // A user's department can change, so their workflows may sit on several shards
+        return concat(shards.fanOut(shard -> workflowRepository.findBySubmittedByUsername(username)));
+    }
+
+    public List<Workflow> findByDepartment(String department) {
+        return shards.onShard(shards.shardFor(department), () -> workflowRepository.findByDepartment(department));
+    }
+
+    public List<Workflow> findPendingByDepartment(String department) {
+        return shards.onShard(shards.shardFor(department), () -> workflowRepository.findPendingByDepartment(department));
+    }
+
+    public Map<String, Long> countByStatus() {
+        return mergeCounts(shards.fanOut(shard -> workflowRepository.countByStatus()));
+    }
+
+    public List<ArchivedWorkflow> findAllArchived() {
+        return concat(shards.fanOut(shard -> archivedWorkflowRepository.findAll()));
+    }
+
+    public List<ArchivedWorkflow> findArchivedBySubmittedByUsername(String username) {
+        return concat(shards.fanOut(shard -> archivedWorkflowRepository.findBySubmittedByUsername(username)));
+    }
+
+    public List<ArchivedWorkflow> findArchivedByDepartment(String department) {
+        return shards.onShard(shards.shardFor(department), () -> archivedWorkflowRepository.findByDepartment(department));
+    }
+
+    public long countArchivedByStatus(String status) {
+        return shards.fanOut(shard -> archivedWorkflowRepository.countByStatus(status)).stream()
+                .mapToLong(Long::longValue).sum();
+    }
+
+    private <T> List<T> concat(List<List<T>> perShard) {
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        List<T> merged = new ArrayList<>();
+        perShard.forEach(merged::addAll);
+        return merged;
+    }
+
+    private Map<String, Long> mergeCounts(List<List<Object[]>> perShard) {
+        Map<String, Long> counts = new HashMap<>();
+        for (List<Object[]> rows : perShard) {
+            for (Object[] row : rows) {
+                counts.merge((String) row[0], (Long) row[1], Long::sum);
+            }
+        }
+        return counts;
+    }
+}
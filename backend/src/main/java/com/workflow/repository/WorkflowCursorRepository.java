@@ -0,0 +1,112 @@
+package com.workflow.repository;
+
+import com.workflow.config.WorkflowShards;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streams workflow rows (live and archived) straight off a forward-only JDBC cursor,
+// one shard at a time, without building entities. Every row exposes the same columns:
+// id, title, description, type, status, amount, department, submitted_by, approved_by,
+// created_at, updated_at.
+@Repository
+public class WorkflowCursorRepository {
+
+    private static final String LIVE_SELECT =
+            "SELECT w.id, w.title, w.description, w.type, w.status, w.amount, w.department, " +
+            "s.username AS submitted_by, a.username AS approved_by, w.created_at, w.updated_at " +
+            "FROM workflows w LEFT JOIN users s ON s.id = w.user_id LEFT JOIN users a ON a.id = w.approved_by";
+
+    private static final String ARCHIVE_SELECT =
+            "SELECT w.id, w.title, w.description, w.type, w.status, w.amount, w.department, " +
+            "w.submitted_by_username AS submitted_by, w.approved_by_username AS approved_by, w.created_at, w.updated_at " +
+            "FROM workflow_archive w";
+
+    @Autowired
+    private WorkflowShards shards;
+
+    @Value("${workflow.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public void streamRows(LocalDateTime from, LocalDateTime to, String department, String status,
+                           boolean includeArchived, RowCallbackHandler handler) {
+        List<Object> params = new ArrayList<>();
+        String where = buildWhere(from, to, department, status, params);
+
+        List<Integer> targetShards = new ArrayList<>();
+        if (department != null) {
+            targetShards.add(shards.shardFor(department));
+        } else {
+            for (int i = 0; i < shards.shardCount(); i++) {
+                targetShards.add(i);
+            }
+        }
+
+        for (int shard : targetShards) {
+            JdbcTemplate jdbc = new JdbcTemplate(shards.dataSource(shard));
+            jdbc.execute((ConnectionCallback<Void>) connection -> {
+                stream(connection, LIVE_SELECT + where, params, handler);
+                if (includeArchived) {
+                    stream(connection, ARCHIVE_SELECT + where, params, handler);
+                }
+                return null;
+            });
+        }
+    }
+
+    private void stream(Connection connection, String sql, List<Object> params, RowCallbackHandler handler) throws SQLException {
+        // H2 buffers whole results unless lazy execution is on; it is reset before the connection goes back to the pool
+        try (Statement session = connection.createStatement()) {
+            session.execute("SET LAZY_QUERY_EXECUTION TRUE");
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    handler.processRow(rs);
+                }
+            }
+        } finally {
+            try (Statement session = connection.createStatement()) {
+                session.execute("SET LAZY_QUERY_EXECUTION FALSE");
+            }
+        }
+    }
+
+    private String buildWhere(LocalDateTime from, LocalDateTime to, String department, String status, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (from != null) {
+            conditions.add("w.created_at >= ?");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            conditions.add("w.created_at < ?");
+            params.add(Timestamp.valueOf(to));
+        }
+        if (department != null) {
+            conditions.add("w.department = ?");
+            params.add(department);
+        }
+        if (status != null) {
+            conditions.add("w.status = ?");
+            params.add(status);
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+}
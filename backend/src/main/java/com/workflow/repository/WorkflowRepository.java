@@ -1,14 +1,21 @@
 package com.workflow.repository;
 
 import com.workflow.model.Workflow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
-public interface WorkflowRepository extends JpaRepository<Workflow, String> {
+public interface WorkflowRepository extends JpaRepository<Workflow, UUID> {
 
     List<Workflow> findBySubmittedByUsername(String username);
 
@@ -24,4 +31,22 @@ public interface WorkflowRepository extends JpaRepository<Workflow, String> {
 
     @Query("SELECT w.status, COUNT(w) FROM Workflow w GROUP BY w.status")
     List<Object[]> countByStatus();
+
+    // Only applies if the row is unchanged since it was read for scoring, so a slow
+    // prediction never overwrites one made for a newer edit. Bumps the version so an edit
+    // or decision that loaded the row before the prediction fails instead of nulling it
+    @Modifying
+    @Transactional
+    @Query("UPDATE Workflow w SET w.approvalProbability = :probability, w.suggestion = :suggestion, " +
+           "w.modelVersion = :modelVersion, w.predictedAt = :predictedAt, w.version = w.version + 1 " +
+           "WHERE w.id = :id AND w.updatedAt = :scoredUpdatedAt")
+    int storePrediction(@Param("id") UUID id,
+                        @Param("scoredUpdatedAt") LocalDateTime scoredUpdatedAt,
+                        @Param("probability") Double probability,
+                        @Param("suggestion") String suggestion,
+                        @Param("modelVersion") String modelVersion,
+                        @Param("predictedAt") LocalDateTime predictedAt);
+
+    // Oldest decided workflows first, used by the archive job
+    List<Workflow> findByStatusInAndUpdatedAtBeforeOrderByUpdatedAtAsc(Collection<String> statuses, LocalDateTime cutoff, Pageable pageable);
 }
@@ -1,46 +1,105 @@
 package com.workflow.service;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import com.workflow.model.Workflow;
 
+import jakarta.annotation.PostConstruct;
+
 @Service
 public class AIService {
     
-    private final RestTemplate restTemplate = new RestTemplate();
     private final String ML_SERVICE_URL = "http://localhost:8000";
+
+    @Value("${workflow.ml.connect-timeout-ms:1000}")
+    private int connectTimeoutMs;
+
+    @Value("${workflow.ml.read-timeout-ms:3000}")
+    private int readTimeoutMs;
+
+    @Value("${workflow.ml.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${workflow.ml.max-queue:16}")
+    private int maxQueue;
+
+    @Value("${workflow.ml.max-wait-ms:1000}")
+    private long maxWaitMs;
+
+    @Value("${workflow.ml.target-queue-latency-ms:250}")
+    private long targetQueueLatencyMs;
+
+    private RestTemplate restTemplate;
+
+    // Outbound ML calls get their own concurrency budget so a slow model cannot hold every request thread
+    private Bulkhead mlBulkhead;
+
+    @PostConstruct
+    void init() {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        restTemplate = new RestTemplate(requestFactory);
+        mlBulkhead = new Bulkhead("ml-service", maxConcurrent, maxQueue, maxWaitMs, targetQueueLatencyMs);
+    }
     
-    public Map<String, Object> getApprovalPrediction(Workflow workflow) {
-        try {
-            Map<String, Object> request = new HashMap<>();
-            request.put("title", workflow.getTitle());
-            request.put("description", workflow.getDescription());
-            request.put("type", workflow.getType());
-            request.put("amount", workflow.getAmount());
-            request.put("department", workflow.getDepartment());
-            
-            Map response = restTemplate.postForObject(
-                ML_SERVICE_URL + "/api/predict-approval", 
-                request, 
-                Map.class
-            );
-            return response != null ? response : getFallbackPrediction(workflow);
-        } catch (Exception e) {
-            return getFallbackPrediction(workflow);
+    // Scores a batch in one round trip. The result is aligned with the input, with null where
+    // the model could not score an item. Any failure of the call itself is thrown, never
+    // replaced by the local rules, so the caller can retry instead of storing a fallback.
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> getApprovalPredictions(List<Workflow> workflows) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("workflows", workflows.stream().map(this::toPredictionRequest).collect(Collectors.toList()));
+
+        Map response = mlBulkhead.execute(() -> restTemplate.postForObject(
+            ML_SERVICE_URL + "/api/predict-approval/batch",
+            request,
+            Map.class
+        ));
+        List<Map<String, Object>> predictions = response != null ? (List<Map<String, Object>>) response.get("predictions") : null;
+        if (predictions == null || predictions.size() != workflows.size()) {
+            throw new IllegalStateException("ML service returned " + (predictions == null ? "no" : predictions.size())
+                    + " predictions for a batch of " + workflows.size());
         }
+        return predictions;
+    }
+
+    // Delivers outbox events; any failure is thrown so the relay keeps the batch and retries
+    public void publishFeedback(List<Map<String, Object>> events) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("events", events);
+        mlBulkhead.execute(() -> restTemplate.postForObject(
+            ML_SERVICE_URL + "/api/feedback/batch",
+            request,
+            Map.class
+        ));
+    }
+
+    private Map<String, Object> toPredictionRequest(Workflow workflow) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("title", workflow.getTitle());
+        request.put("description", workflow.getDescription());
+        request.put("type", workflow.getType());
+        request.put("amount", workflow.getAmount());
+        request.put("department", workflow.getDepartment());
+        return request;
     }
     
     // Add this method for analytics
     public Map<String, Object> getAnalyticsData() {
         try {
-            Map response = restTemplate.getForObject(
+            Map response = mlBulkhead.execute(() -> restTemplate.getForObject(
                 ML_SERVICE_URL + "/api/analytics", 
                 Map.class
-            );
+            ));
             return response != null ? response : getFallbackAnalytics();
         } catch (Exception e) {
             System.err.println("Error fetching analytics from ML service: " + e.getMessage());
@@ -48,7 +107,8 @@ public class AIService {
         }
     }
     
-    private Map<String, Object> getFallbackPrediction(Workflow workflow) {
+    // Rule-based score computed locally, no network call
+    public Map<String, Object> getFallbackPrediction(Workflow workflow) {
         Map<String, Object> prediction = new HashMap<>();
         double baseScore = 0.5;
         
@@ -67,6 +127,7 @@ public class AIService {
         prediction.put("approvalProbability", probability);
         prediction.put("suggestion", probability > 0.6 ? "APPROVE" : "REVIEW");
         prediction.put("confidence", 0.85);
+        prediction.put("modelVersion", "fallback-rules");
         prediction.put("fallback", true);
         
         return prediction;
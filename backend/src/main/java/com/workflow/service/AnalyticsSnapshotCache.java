@@ -0,0 +1,98 @@
+package com.workflow.service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+// Stale-while-revalidate holder for the analytics payload.
+// Readers always get the last good snapshot immediately; once it is older than
+// the freshness window a single background refresh is started.
+public class AnalyticsSnapshotCache {
+
+    private final Supplier<Map<String, Object>> loader;
+    private final long freshnessMs;
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final Object initialLoadLock = new Object();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "analytics-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Snapshot snapshot;
+
+    public AnalyticsSnapshotCache(Supplier<Map<String, Object>> loader, long freshnessMs) {
+        this.loader = loader;
+        this.freshnessMs = freshnessMs;
+    }
+
+    public Map<String, Object> get() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Nothing to serve yet, so the very first caller has to wait for a load
+            synchronized (initialLoadLock) {
+                current = snapshot;
+                if (current == null) {
+                    current = new Snapshot(loader.get(), System.currentTimeMillis());
+                    snapshot = current;
+                }
+            }
+        } else if (current.ageMs() > freshnessMs) {
+            triggerRefresh();
+        }
+        return current.toResponse(freshnessMs);
+    }
+
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void triggerRefresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    snapshot = new Snapshot(loader.get(), System.currentTimeMillis());
+                } catch (Exception e) {
+                    // Keep serving the previous snapshot until a refresh succeeds
+                    System.err.println("Analytics refresh failed: " + e.getMessage());
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    private static class Snapshot {
+        private final Map<String, Object> data;
+        private final long createdAtMs;
+
+        Snapshot(Map<String, Object> data, long createdAtMs) {
+            this.data = data;
+            this.createdAtMs = createdAtMs;
+        }
+
+        long ageMs() {
+            return System.currentTimeMillis() - createdAtMs;
+        }
+
+        Map<String, Object> toResponse(long freshnessMs) {
+            long age = ageMs();
+            Map<String, Object> response = new HashMap<>(data);
+            response.putIfAbsent("source", "unknown");
+            response.put("generatedAt", Instant.ofEpochMilli(createdAtMs).toString());
+            response.put("snapshotAgeMs", age);
+            response.put("stale", age > freshnessMs);
+            return response;
+        }
+    }
+}
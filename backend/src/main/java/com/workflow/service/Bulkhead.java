@@ -0,0 +1,81 @@
+package com.workflow.service;
+
+import com.workflow.exception.ServiceOverloadedException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Concurrency limit with a bounded wait queue. Callers are shed with a 503 when the
+// queue is full, when they wait too long, or when the recent average queueing delay
+// is already above the target, so an overloaded dependency fails fast instead of
+// tying up request threads.
+public class Bulkhead {
+
+    private static final double EWMA_WEIGHT = 0.2;
+
+    private final String name;
+    private final Semaphore permits;
+    private final int maxQueue;
+    private final long maxWaitMs;
+    private final long targetQueueLatencyMs;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private volatile double queueLatencyEwmaMs;
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueue, long maxWaitMs, long targetQueueLatencyMs) {
+        this.name = name;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxQueue = maxQueue;
+        this.maxWaitMs = maxWaitMs;
+        this.targetQueueLatencyMs = targetQueueLatencyMs;
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        acquire();
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        if (permits.tryAcquire()) {
+            recordQueueLatency(0);
+            return;
+        }
+        if (queueLatencyEwmaMs > targetQueueLatencyMs) {
+            // Decay the average so the bulkhead recovers once callers back off
+            recordQueueLatency(0);
+            throw overloaded("queue latency above target");
+        }
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            throw overloaded("queue full");
+        }
+        long start = System.nanoTime();
+        try {
+            boolean acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+            recordQueueLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            if (!acquired) {
+                throw overloaded("timed out waiting for a slot");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw overloaded("interrupted while waiting");
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private void recordQueueLatency(long latencyMs) {
+        queueLatencyEwmaMs = queueLatencyEwmaMs + EWMA_WEIGHT * (latencyMs - queueLatencyEwmaMs);
+    }
+
+    private ServiceOverloadedException overloaded(String reason) {
+        long retryAfterSeconds = Math.max(1, (long) Math.ceil(Math.max(queueLatencyEwmaMs, maxWaitMs) / 1000.0));
+        return new ServiceOverloadedException(name + " overloaded: " + reason, 503, retryAfterSeconds);
+    }
+}
@@ -0,0 +1,119 @@
+package com.workflow.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.config.WorkflowShards;
+import com.workflow.model.OutboxEvent;
+import com.workflow.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// Drains the outbox on every shard to the ML service's feedback endpoint. Events are deleted
+// only after the batch is acknowledged, so delivery is at-least-once and consumers dedupe
+// on eventId. A failed batch is retried with capped exponential backoff.
+@Service
+public class OutboxRelay {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private AIService aiService;
+
+    @Autowired
+    private WorkflowShards shards;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${workflow.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${workflow.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${workflow.outbox.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${workflow.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Scheduled(initialDelayString = "${workflow.outbox.initial-delay-ms:10000}",
+            fixedDelayString = "${workflow.outbox.interval-ms:2000}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        long delivered = shards.fanOut(this::relayShard).stream().mapToLong(Integer::longValue).sum();
+        if (delivered > 0) {
+            System.out.println("Relayed " + delivered + " outbox events to the ML service");
+        }
+    }
+
+    private int relayShard(int shard) {
+        int delivered = 0;
+        while (true) {
+            List<OutboxEvent> batch = outboxEventRepository.findByNextAttemptAtLessThanEqualOrderByCreatedAtAsc(
+                    LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return delivered;
+            }
+            try {
+                aiService.publishFeedback(batch.stream().map(this::toMessage).collect(Collectors.toList()));
+            } catch (Exception e) {
+                scheduleRetry(batch, e);
+                System.err.println("Outbox relay for shard " + shard + " failed, will retry: " + e.getMessage());
+                return delivered;
+            }
+            outboxEventRepository.deleteAllInBatch(batch);
+            delivered += batch.size();
+            if (batch.size() < batchSize) {
+                return delivered;
+            }
+        }
+    }
+
+    private void scheduleRetry(List<OutboxEvent> batch, Exception error) {
+        LocalDateTime now = LocalDateTime.now();
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        for (OutboxEvent event : batch) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setNextAttemptAt(now.plusNanos(backoffMs(event.getAttempts()) * 1_000_000L));
+            event.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        }
+        outboxEventRepository.saveAll(batch);
+    }
+
+    // Doubles per attempt up to the cap; jitter keeps shards from retrying in lockstep
+    private long backoffMs(int attempts) {
+        long backoff = initialBackoffMs << Math.min(attempts - 1, 20);
+        backoff = Math.min(backoff, maxBackoffMs);
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> toMessage(OutboxEvent event) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("eventId", event.getId().toString());
+        message.put("eventType", event.getEventType());
+        message.put("workflowId", event.getWorkflowId().toString());
+        message.put("occurredAt", event.getCreatedAt().toString());
+        message.put("attempts", event.getAttempts());
+        try {
+            message.put("data", event.getPayload() != null ? objectMapper.readValue(event.getPayload(), Map.class) : Map.of());
+        } catch (JsonProcessingException e) {
+            message.put("data", Map.of());
+        }
+        return message;
+    }
+}
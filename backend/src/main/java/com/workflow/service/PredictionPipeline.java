@@ -0,0 +1,170 @@
+package com.workflow.service;
+
+import com.workflow.exception.ServiceOverloadedException;
+import com.workflow.model.Workflow;
+import com.workflow.repository.ShardedWorkflowRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Scores workflows off the request path: submissions and edits are queued, workers
+// drain the queue in batches, call the ML service once per batch and store the
+// result on the workflow so read endpoints never wait on the model.
+@Service
+public class PredictionPipeline {
+
+    @Autowired
+    private ShardedWorkflowRepository workflowRepository;
+
+    @Autowired
+    private ReadCoalescer readCoalescer;
+
+    @Autowired
+    private AIService aiService;
+
+    @Value("${workflow.prediction.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${workflow.prediction.workers:2}")
+    private int workers;
+
+    @Value("${workflow.prediction.batch-size:32}")
+    private int batchSize;
+
+    @Value("${workflow.prediction.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    private BlockingQueue<ScoringTask> queue;
+    // Ids waiting in the queue; a workflow is re-read when scored, so queueing it twice is pointless
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+    private ExecutorService workerPool;
+    private volatile boolean running;
+
+    private record ScoringTask(UUID workflowId, String department) {}
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        AtomicInteger threadCount = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "prediction-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::runWorker);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        workerPool.shutdownNow();
+    }
+
+    // Never blocks the caller; if the queue is full the workflow is scored when it is next read
+    public boolean enqueue(Workflow workflow) {
+        if (workflow.getId() == null || !queued.add(workflow.getId())) {
+            return false;
+        }
+        if (!queue.offer(new ScoringTask(workflow.getId(), workflow.getDepartment()))) {
+            queued.remove(workflow.getId());
+            System.err.println("Prediction queue full, deferring scoring of workflow " + workflow.getId());
+            return false;
+        }
+        return true;
+    }
+
+    private void runWorker() {
+        List<ScoringTask> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ScoringTask first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batch.forEach(task -> queued.remove(task.workflowId()));
+                scoreBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ServiceOverloadedException e) {
+                // The ML bulkhead is shedding load: put the batch back and pause before retrying
+                batch.forEach(task -> requeue(task));
+                sleepQuietly(TimeUnit.SECONDS.toMillis(e.getRetryAfterSeconds()));
+            } catch (Exception e) {
+                // ML service down, timing out or rejecting the batch: keep the workflows unscored
+                // and retry later rather than storing a rule-based score as if it were final
+                System.err.println("Error scoring workflows, retrying in " + retryDelayMs + " ms: " + e.getMessage());
+                batch.forEach(task -> requeue(task));
+                sleepQuietly(retryDelayMs);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void scoreBatch(List<ScoringTask> batch) {
+        List<Workflow> workflows = new ArrayList<>(batch.size());
+        for (ScoringTask task : batch) {
+            Optional<Workflow> workflow = workflowRepository.findById(task.workflowId(), task.department());
+            workflow.ifPresent(workflows::add);
+        }
+        if (workflows.isEmpty()) {
+            return;
+        }
+
+        List<Map<String, Object>> predictions = aiService.getApprovalPredictions(workflows);
+        for (int i = 0; i < workflows.size(); i++) {
+            Map<String, Object> prediction = predictions.get(i);
+            if (prediction == null) {
+                // The model rejected this item; it stays unscored and is served the fallback on read
+                System.err.println("ML service could not score workflow " + workflows.get(i).getId());
+                continue;
+            }
+            Object probability = prediction.get("approvalProbability");
+            Object modelVersion = prediction.get("modelVersion");
+            boolean stored = workflowRepository.storePrediction(
+                    workflows.get(i),
+                    probability instanceof Number number ? number.doubleValue() : null,
+                    (String) prediction.get("suggestion"),
+                    modelVersion != null ? modelVersion.toString() : "unknown");
+            if (stored) {
+                readCoalescer.workflowsChanged(workflows.get(i).getDepartment());
+            }
+        }
+    }
+
+    private void requeue(ScoringTask task) {
+        if (queued.add(task.workflowId()) && !queue.offer(task)) {
+            queued.remove(task.workflowId());
+        }
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.workflow.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Mergeable log-bucketed histogram (DDSketch/HDR style). Values in [MIN_VALUE, MAX_VALUE]
+// land in buckets whose bounds grow by a constant factor, so every quantile is within
+// RELATIVE_ACCURACY of the true value and memory is fixed no matter how many values are added.
+public class QuantileSketch {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final double MIN_VALUE = 0.01;
+    private static final double MAX_VALUE = 1e10;
+    private static final int MIN_INDEX = index(MIN_VALUE);
+    private static final int BUCKETS = index(MAX_VALUE) - MIN_INDEX + 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public synchronized void add(double value) {
+        if (Double.isNaN(value) || value < 0) {
+            return;
+        }
+        if (value < MIN_VALUE) {
+            zeroCount++;
+        } else {
+            counts[index(Math.min(value, MAX_VALUE)) - MIN_INDEX]++;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public synchronized void mergeInto(QuantileSketch target) {
+        synchronized (target) {
+            for (int i = 0; i < BUCKETS; i++) {
+                target.counts[i] += counts[i];
+            }
+            target.zeroCount += zeroCount;
+            target.count += count;
+            target.min = Math.min(target.min, min);
+            target.max = Math.max(target.max, max);
+        }
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.ceil(q * count);
+        if (rank <= zeroCount) {
+            return Math.max(min, 0);
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // Midpoint of the bucket in relative terms, clamped to what was actually observed
+                double estimate = 2 * Math.pow(GAMMA, i + MIN_INDEX) / (GAMMA + 1);
+                return Math.max(min, Math.min(max, estimate));
+            }
+        }
+        return max;
+    }
+
+    public synchronized Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        if (count > 0) {
+            summary.put("min", round(min));
+            summary.put("p50", round(quantile(0.50)));
+            summary.put("p90", round(quantile(0.90)));
+            summary.put("p99", round(quantile(0.99)));
+            summary.put("max", round(max));
+        }
+        return summary;
+    }
+
+    private static int index(double value) {
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
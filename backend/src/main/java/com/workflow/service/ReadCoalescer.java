@@ -0,0 +1,171 @@
+package com.workflow.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Single-flight for read endpoints: concurrent identical requests share one load and one
+// serialized JSON buffer. Every read names the scopes it depends on; writers bump those
+// scopes' versions once they have committed, which retires any result loaded under an
+// older version, so a request that starts after a write never gets a pre-write body, and
+// drops them from memory. Completed results are otherwise only kept for a short ttl to
+// absorb bursts.
+@Service
+public class ReadCoalescer {
+
+    public static final String USERS = "users";
+    // Bumped when every workflow read may be affected (e.g. a user embedded in workflows changed)
+    private static final String WORKFLOWS = "workflows";
+    // Bumped by any workflow write; read by endpoints spanning departments
+    private static final String WORKFLOWS_ALL_DEPARTMENTS = "workflows:all";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${workflow.coalescing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${workflow.coalescing.result-ttl-ms:1000}")
+    private long resultTtlMs;
+
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public static List<String> departmentScopes(String department) {
+        return List.of(WORKFLOWS, departmentScope(department));
+    }
+
+    public static List<String> allWorkflowScopes() {
+        return List.of(WORKFLOWS, WORKFLOWS_ALL_DEPARTMENTS);
+    }
+
+    public void workflowsChanged(String department) {
+        bump(departmentScope(department));
+        bump(WORKFLOWS_ALL_DEPARTMENTS);
+    }
+
+    public void usersChanged() {
+        bump(USERS);
+        // Users are embedded in workflow responses (approvedBy)
+        bump(WORKFLOWS);
+    }
+
+    // Returns the loader's result serialized as JSON, or null if the loader returned null
+    public byte[] read(String key, List<String> scopes, Supplier<?> loader) {
+        if (!enabled) {
+            return serialize(loader.get());
+        }
+        long version = version(scopes);
+        while (true) {
+            Flight current = flights.get(key);
+            if (current != null && current.version == version && !current.expired(resultTtlMs)) {
+                return await(current);
+            }
+            Flight mine = new Flight(version, scopes);
+            boolean claimed = current == null ? flights.putIfAbsent(key, mine) == null : flights.replace(key, current, mine);
+            if (claimed) {
+                load(key, mine, loader);
+                return await(mine);
+            }
+        }
+    }
+
+    // Keys of the filter endpoints come from request parameters, so expired bodies are
+    // released about as often as they expire rather than left to pile up
+    @Scheduled(fixedDelayString = "${workflow.coalescing.sweep-interval-ms:1000}")
+    public void sweep() {
+        flights.values().removeIf(flight -> flight.expired(resultTtlMs));
+    }
+
+    private void load(String key, Flight flight, Supplier<?> loader) {
+        try {
+            flight.complete(serialize(loader.get()));
+        } catch (Throwable e) {
+            // Failures (including Errors) are shared with whoever joined, but never kept for
+            // later requests; completing the future is what keeps joiners from waiting forever
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            return;
+        }
+        if (resultTtlMs <= 0) {
+            flights.remove(key, flight);
+        }
+    }
+
+    private byte[] await(Flight flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+    }
+
+    private long version(List<String> scopes) {
+        // Counters only grow, so the sum changes whenever any of the scopes is bumped
+        long sum = 0;
+        for (String scope : scopes) {
+            AtomicLong counter = versions.get(scope);
+            sum += counter != null ? counter.get() : 0;
+        }
+        return sum;
+    }
+
+    private void bump(String scope) {
+        versions.computeIfAbsent(scope, s -> new AtomicLong()).incrementAndGet();
+        // Loads already running keep their own reference; new requests start a fresh one
+        flights.values().removeIf(flight -> flight.scopes.contains(scope));
+    }
+
+    private static String departmentScope(String department) {
+        return "workflows:department:" + department;
+    }
+
+    private static class Flight {
+        private final long version;
+        private final List<String> scopes;
+        private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        private volatile long completedAtMs;
+
+        Flight(long version, List<String> scopes) {
+            this.version = version;
+            this.scopes = scopes;
+        }
+
+        void complete(byte[] body) {
+            completedAtMs = System.currentTimeMillis();
+            result.complete(body);
+        }
+
+        boolean expired(long ttlMs) {
+            long completed = completedAtMs;
+            return completed != 0 && System.currentTimeMillis() - completed > ttlMs;
+        }
+    }
+}
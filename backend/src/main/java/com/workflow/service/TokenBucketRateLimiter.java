@@ -0,0 +1,58 @@
+package com.workflow.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-key token buckets: each key may burst up to capacity, then gets ratePerMinute tokens a minute
+public class TokenBucketRateLimiter {
+
+    private final double capacity;
+    private final double refillPerMs;
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketRateLimiter(double ratePerMinute, double capacity) {
+        this.capacity = capacity;
+        this.refillPerMs = ratePerMinute / 60_000.0;
+    }
+
+    // Returns 0 when a token was taken, otherwise how many ms until one is available
+    public long tryAcquire(String key) {
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, System.currentTimeMillis()));
+        synchronized (bucket) {
+            bucket.refill(System.currentTimeMillis());
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / refillPerMs);
+        }
+    }
+
+    // Full buckets carry no state worth keeping, so drop them to bound memory
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        buckets.entrySet().removeIf(entry -> {
+            Bucket bucket = entry.getValue();
+            synchronized (bucket) {
+                bucket.refill(now);
+                return bucket.tokens >= capacity;
+            }
+        });
+    }
+
+    private class Bucket {
+        private double tokens;
+        private long lastRefillMs;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefillMs = now;
+        }
+
+        void refill(long now) {
+            if (now > lastRefillMs) {
+                tokens = Math.min(capacity, tokens + (now - lastRefillMs) * refillPerMs);
+                lastRefillMs = now;
+            }
+        }
+    }
+}
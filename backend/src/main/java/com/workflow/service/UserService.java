@@ -1,12 +1,19 @@
 package com.workflow.service;
 
+import com.workflow.config.UserShardReplicator;
+import com.workflow.config.WorkflowShards;
+import com.workflow.exception.ShardReplicationException;
+import com.workflow.model.Ids;
 import com.workflow.model.User;
+import com.workflow.model.Workflow;
+import com.workflow.repository.ShardedWorkflowRepository;
 import com.workflow.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class UserService {
@@ -14,6 +21,21 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private WorkflowShards shards;
+
+    @Autowired
+    private UserShardReplicator userShardReplicator;
+
+    @Autowired
+    private ShardedWorkflowRepository workflowRepository;
+
+    @Autowired
+    private WorkflowBitmapIndex bitmapIndex;
+
+    @Autowired
+    private ReadCoalescer readCoalescer;
+
     // Authenticate user by username and password
     public Optional<User> authenticate(String username, String password) {
         return userRepository.findByUsername(username)
@@ -37,12 +59,16 @@ public class UserService {
 
     // Create new user
     public User createUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        readCoalescer.usersChanged();
+        // Committed on shard 0 already; shards that miss the copy are caught up by the re-sync
+        userShardReplicator.replicate(saved);
+        return saved;
     }
 
     // Update existing user
     public User updateUser(String id, User userDetails) throws Exception {
-        Optional<User> existingUserOpt = userRepository.findById(id);
+        Optional<User> existingUserOpt = Ids.parse(id).flatMap(userRepository::findById);
         if (existingUserOpt.isPresent()) {
             User existingUser = existingUserOpt.get();
             existingUser.setUsername(userDetails.getUsername());
@@ -52,20 +78,46 @@ public class UserService {
             if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
                 existingUser.setPassword(userDetails.getPassword());
             }
-            return userRepository.save(existingUser);
+            User saved = userRepository.save(existingUser);
+            readCoalescer.usersChanged();
+            userShardReplicator.replicate(saved);
+            return saved;
         } else {
             throw new Exception("User not found with id: " + id);
         }
     }
 
-    // Delete user by ID
+    // Delete user by ID, on every shard so their workflows cascade everywhere
     public void deleteUser(String id) {
-        userRepository.findById(id).ifPresent(userRepository::delete);
+        Optional<UUID> userId = Ids.parse(id);
+        if (userId.isEmpty()) {
+            return;
+        }
+        Optional<User> user = userRepository.findById(userId.get());
+        if (user.isEmpty()) {
+            return;
+        }
+        // The user's live workflows go with it (cascade), so drop them from the query index too
+        List<Workflow> workflows = workflowRepository.findBySubmittedByUsername(user.get().getUsername());
+
+        List<Integer> notDeleted = List.of();
+        try {
+            userShardReplicator.deleteEverywhere(userId.get());
+        } catch (ShardReplicationException e) {
+            notDeleted = e.getFailedShards();
+            throw e;
+        } finally {
+            List<Integer> keptShards = notDeleted;
+            workflows.stream()
+                    .filter(workflow -> !keptShards.contains(shards.shardFor(workflow.getDepartment())))
+                    .forEach(workflow -> bitmapIndex.remove(workflow.getId()));
+            readCoalescer.usersChanged();
+        }
     }
 
     // Get user by ID
     public Optional<User> getUserById(String id) {
-        return userRepository.findById(id);
+        return Ids.parse(id).flatMap(userRepository::findById);
     }
 
     // Get user by username
@@ -0,0 +1,94 @@
+package com.workflow.service;
+
+import com.workflow.config.WorkflowShards;
+import com.workflow.model.ArchivedWorkflow;
+import com.workflow.model.Workflow;
+import com.workflow.repository.ArchivedWorkflowRepository;
+import com.workflow.repository.WorkflowRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Moves decided workflows out of the live table so pending queries only see recent rows
+@Service
+public class WorkflowArchiveService {
+
+    private static final List<String> TERMINAL_STATUSES = List.of("APPROVED", "REJECTED");
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private ArchivedWorkflowRepository archivedWorkflowRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private WorkflowShards shards;
+
+    @Autowired
+    private ReadCoalescer readCoalescer;
+
+    @Value("${workflow.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${workflow.archive.min-age-days:90}")
+    private long minAgeDays;
+
+    @Value("${workflow.archive.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${workflow.archive.initial-delay-ms:60000}",
+            fixedDelayString = "${workflow.archive.interval-ms:3600000}")
+    public void archiveDecidedWorkflows() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(minAgeDays);
+        long archived = archiveOlderThan(cutoff);
+        if (archived > 0) {
+            System.out.println("Archived " + archived + " decided workflows older than " + cutoff);
+        }
+    }
+
+    public long archiveOlderThan(LocalDateTime cutoff) {
+        return shards.fanOut(shard -> archiveShard(cutoff)).stream().mapToLong(Long::longValue).sum();
+    }
+
+    private long archiveShard(LocalDateTime cutoff) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long total = 0;
+        while (true) {
+            // One transaction per batch keeps locks short and lets a failure resume where it stopped
+            List<Workflow> moved = transaction.execute(status -> archiveBatch(cutoff));
+            if (moved == null || moved.isEmpty()) {
+                return total;
+            }
+            moved.stream().map(Workflow::getDepartment).distinct().forEach(readCoalescer::workflowsChanged);
+            total += moved.size();
+            if (moved.size() < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    private List<Workflow> archiveBatch(LocalDateTime cutoff) {
+        List<Workflow> batch = workflowRepository.findByStatusInAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                TERMINAL_STATUSES, cutoff, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        archivedWorkflowRepository.saveAll(batch.stream().map(ArchivedWorkflow::from).collect(Collectors.toList()));
+        workflowRepository.deleteAllInBatch(batch);
+        return batch;
+    }
+}
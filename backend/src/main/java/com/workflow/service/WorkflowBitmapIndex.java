@@ -0,0 +1,339 @@
+package com.workflow.service;
+
+import com.workflow.model.Workflow;
+import com.workflow.repository.WorkflowCursorRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory secondary index over live and archived workflows for arbitrary
+// department x type x status x amount x date filters. Each workflow gets a dense row
+// number; the low-cardinality string columns are dictionary-encoded with one compressed
+// bitmap per value, and amount bin/creation day are kept as sorted key -> bitmap maps,
+// so a filter is a handful of bitmap ORs and ANDs instead of a table scan.
+@Service
+public class WorkflowBitmapIndex {
+
+    private static final int AMOUNT_BINS_PER_DECADE = 16;
+
+    @Autowired
+    private WorkflowCursorRepository workflowCursorRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<UUID, Integer> rowIds = new HashMap<>();
+    private UUID[] ids = new UUID[1024];
+    private double[] amounts = new double[1024];
+    private long[] createdAt = new long[1024];
+    private int nextRow;
+
+    private RoaringBitmap liveRows = new RoaringBitmap();
+    private Dictionary departments = new Dictionary();
+    private Dictionary types = new Dictionary();
+    private Dictionary statuses = new Dictionary();
+    // Log-spaced amount bins -> rows (about a hundred bins for 1 to 10^7), so even a wide
+    // range is a short OR; only the two edge bins are refined against the exact amounts
+    private TreeMap<Long, RoaringBitmap> amountIndex = new TreeMap<>();
+    private TreeMap<Long, RoaringBitmap> createdDayIndex = new TreeMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            rowIds = new HashMap<>();
+            ids = new UUID[1024];
+            amounts = new double[1024];
+            createdAt = new long[1024];
+            nextRow = 0;
+            liveRows = new RoaringBitmap();
+            departments = new Dictionary();
+            types = new Dictionary();
+            statuses = new Dictionary();
+            amountIndex = new TreeMap<>();
+            createdDayIndex = new TreeMap<>();
+
+            workflowCursorRepository.streamRows(null, null, null, null, true, rs -> {
+                double amount = rs.getDouble("amount");
+                Double boxedAmount = rs.wasNull() ? null : amount;
+                Timestamp created = rs.getTimestamp("created_at");
+                upsertLocked(UUID.fromString(rs.getString("id")), rs.getString("department"), rs.getString("type"),
+                        rs.getString("status"), boxedAmount, created != null ? created.toLocalDateTime() : null);
+            });
+            liveRows.runOptimize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("Rebuilt workflow bitmap index with " + liveRows.getCardinality() + " rows in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    public void upsert(Workflow workflow) {
+        lock.writeLock().lock();
+        try {
+            upsertLocked(workflow.getId(), workflow.getDepartment(), workflow.getType(), workflow.getStatus(),
+                    workflow.getAmount(), workflow.getCreatedAt());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID workflowId) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowIds.remove(workflowId);
+            if (row != null) {
+                clearRow(row);
+                ids[row] = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Values within one dimension are ORed, dimensions are ANDed; null or empty means no filter
+    public Map<String, Object> query(Collection<String> departmentFilter, Collection<String> typeFilter,
+                                     Collection<String> statusFilter, Double minAmount, Double maxAmount,
+                                     LocalDate from, LocalDate to, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = liveRows.clone();
+            if (departmentFilter != null && !departmentFilter.isEmpty()) {
+                result.and(departments.union(departmentFilter));
+            }
+            if (typeFilter != null && !typeFilter.isEmpty()) {
+                result.and(types.union(typeFilter));
+            }
+            if (statusFilter != null && !statusFilter.isEmpty()) {
+                result.and(statuses.union(statusFilter));
+            }
+            if (minAmount != null || maxAmount != null) {
+                result.and(amountRange(minAmount, maxAmount));
+            }
+            if (from != null || to != null) {
+                long fromDay = from != null ? from.toEpochDay() : Long.MIN_VALUE;
+                long toDay = to != null ? to.toEpochDay() : Long.MAX_VALUE;
+                result.and(fromDay > toDay ? new RoaringBitmap()
+                        : union(createdDayIndex.subMap(fromDay, true, toDay, true).values()));
+            }
+
+            List<Map<String, Object>> matches = new ArrayList<>();
+            var rows = result.getIntIterator();
+            while (rows.hasNext() && matches.size() < limit) {
+                matches.add(describe(rows.next()));
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("count", result.getLongCardinality());
+            response.put("byDepartment", departments.facetCounts(result));
+            response.put("byType", types.facetCounts(result));
+            response.put("byStatus", statuses.facetCounts(result));
+            response.put("matches", matches);
+            return response;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void upsertLocked(UUID id, String department, String type, String status, Double amount, LocalDateTime created) {
+        if (id == null) {
+            return;
+        }
+        Integer existing = rowIds.get(id);
+        int row;
+        if (existing != null) {
+            row = existing;
+            clearRow(row);
+        } else {
+            row = nextRow++;
+            ensureCapacity(row);
+            rowIds.put(id, row);
+            ids[row] = id;
+        }
+
+        liveRows.add(row);
+        departments.add(department, row);
+        types.add(type, row);
+        statuses.add(status, row);
+        amounts[row] = amount != null ? amount : Double.NaN;
+        if (amount != null) {
+            amountIndex.computeIfAbsent(amountBin(amount), k -> new RoaringBitmap()).add(row);
+        }
+        createdAt[row] = created != null ? created.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+        if (created != null) {
+            createdDayIndex.computeIfAbsent(created.toLocalDate().toEpochDay(), k -> new RoaringBitmap()).add(row);
+        }
+    }
+
+    private void clearRow(int row) {
+        liveRows.remove(row);
+        departments.remove(row);
+        types.remove(row);
+        statuses.remove(row);
+        if (!Double.isNaN(amounts[row])) {
+            removeFrom(amountIndex, amountBin(amounts[row]), row);
+        }
+        if (createdAt[row] != Long.MIN_VALUE) {
+            removeFrom(createdDayIndex, Math.floorDiv(createdAt[row], 86_400L), row);
+        }
+    }
+
+    private RoaringBitmap amountRange(Double minAmount, Double maxAmount) {
+        if (minAmount != null && maxAmount != null && minAmount > maxAmount) {
+            return new RoaringBitmap();
+        }
+        long low = minAmount != null ? amountBin(minAmount) : Long.MIN_VALUE;
+        long high = maxAmount != null ? amountBin(maxAmount) : Long.MAX_VALUE;
+        NavigableMap<Long, RoaringBitmap> range = amountIndex.subMap(low, true, high, true);
+        RoaringBitmap matched = union(range.values());
+        // Only the two edge bins can hold rows outside the exact range
+        for (long boundary : new long[]{low, high}) {
+            RoaringBitmap bucket = amountIndex.get(boundary);
+            if (bucket == null) {
+                continue;
+            }
+            bucket.forEach((int row) -> {
+                double amount = amounts[row];
+                if ((minAmount != null && amount < minAmount) || (maxAmount != null && amount > maxAmount)) {
+                    matched.remove(row);
+                }
+            });
+        }
+        return matched;
+    }
+
+    private Map<String, Object> describe(int row) {
+        Map<String, Object> match = new LinkedHashMap<>();
+        match.put("id", ids[row]);
+        match.put("department", departments.valueOf(row));
+        match.put("type", types.valueOf(row));
+        match.put("status", statuses.valueOf(row));
+        match.put("amount", Double.isNaN(amounts[row]) ? null : amounts[row]);
+        match.put("createdAt", createdAt[row] == Long.MIN_VALUE ? null
+                : LocalDateTime.ofEpochSecond(createdAt[row], 0, ZoneOffset.UTC));
+        return match;
+    }
+
+    // Monotonic in the amount: everything below 1 shares bin 0, then 16 bins per decade
+    static long amountBin(double amount) {
+        if (!(amount >= 1)) {
+            return 0;
+        }
+        return 1 + (long) Math.floor(Math.log10(amount) * AMOUNT_BINS_PER_DECADE);
+    }
+
+    private void ensureCapacity(int row) {
+        if (row < ids.length) {
+            return;
+        }
+        int capacity = Math.max(row + 1, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        departments.ensureCapacity(capacity);
+        types.ensureCapacity(capacity);
+        statuses.ensureCapacity(capacity);
+    }
+
+    private static void removeFrom(TreeMap<Long, RoaringBitmap> index, long key, int row) {
+        RoaringBitmap bitmap = index.get(key);
+        if (bitmap != null) {
+            bitmap.remove(row);
+            if (bitmap.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static RoaringBitmap union(Collection<RoaringBitmap> bitmaps) {
+        return bitmaps.isEmpty() ? new RoaringBitmap() : RoaringBitmap.or(bitmaps.iterator());
+    }
+
+    // Value <-> code dictionary for one column, with a bitmap of rows per code
+    private static class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<RoaringBitmap> bitmaps = new ArrayList<>();
+        private int[] rowCodes = new int[1024];
+
+        Dictionary() {
+            Arrays.fill(rowCodes, -1);
+        }
+
+        void add(String value, int row) {
+            if (value == null) {
+                rowCodes[row] = -1;
+                return;
+            }
+            int code = codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                bitmaps.add(new RoaringBitmap());
+                return values.size() - 1;
+            });
+            bitmaps.get(code).add(row);
+            rowCodes[row] = code;
+        }
+
+        void remove(int row) {
+            int code = rowCodes[row];
+            if (code >= 0) {
+                bitmaps.get(code).remove(row);
+            }
+            rowCodes[row] = -1;
+        }
+
+        String valueOf(int row) {
+            int code = rowCodes[row];
+            return code >= 0 ? values.get(code) : null;
+        }
+
+        RoaringBitmap union(Collection<String> filter) {
+            RoaringBitmap result = new RoaringBitmap();
+            for (String value : filter) {
+                Integer code = codes.get(value);
+                if (code != null) {
+                    result.or(bitmaps.get(code));
+                }
+            }
+            return result;
+        }
+
+        Map<String, Long> facetCounts(RoaringBitmap rows) {
+            Map<String, Long> counts = new TreeMap<>();
+            for (int code = 0; code < values.size(); code++) {
+                long count = RoaringBitmap.andCardinality(bitmaps.get(code), rows);
+                if (count > 0) {
+                    counts.put(values.get(code), count);
+                }
+            }
+            return counts;
+        }
+
+        void ensureCapacity(int capacity) {
+            if (rowCodes.length < capacity) {
+                int previous = rowCodes.length;
+                rowCodes = Arrays.copyOf(rowCodes, capacity);
+                Arrays.fill(rowCodes, previous, capacity, -1);
+            }
+        }
+    }
+}
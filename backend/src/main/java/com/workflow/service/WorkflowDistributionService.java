@@ -0,0 +1,132 @@
+package com.workflow.service;
+
+import com.workflow.model.Workflow;
+import com.workflow.repository.WorkflowCursorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Amount and time-to-decision distributions per department and type, kept in
+// fixed-size quantile sketches that are fed as workflows are created and decided.
+// Sketches cannot remove values, so they track amount and type as submitted: an
+// edit through updateWorkflow is not reflected until the next rebuild at startup.
+@Service
+public class WorkflowDistributionService {
+
+    @Autowired
+    private WorkflowCursorRepository workflowCursorRepository;
+
+    private volatile Map<CellKey, Cell> cells = new ConcurrentHashMap<>();
+
+    // Runs after the command line runners, so seeded data is included. Workflows written
+    // while the rebuild is running may be counted twice or not at all; the sketches are
+    // approximate anyway and the next restart evens it out.
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<CellKey, Cell> rebuilt = new ConcurrentHashMap<>();
+        long[] rows = {0};
+        workflowCursorRepository.streamRows(null, null, null, null, true, rs -> {
+            Cell cell = rebuilt.computeIfAbsent(CellKey.of(rs.getString("department"), rs.getString("type")), k -> new Cell());
+            double amount = rs.getDouble("amount");
+            if (!rs.wasNull()) {
+                cell.amount.add(amount);
+            }
+            String status = rs.getString("status");
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            if (!"PENDING".equals(status) && createdAt != null && updatedAt != null) {
+                cell.decisionHours.add(hoursBetween(createdAt.toLocalDateTime(), updatedAt.toLocalDateTime()));
+            }
+            rows[0]++;
+        });
+        cells = rebuilt;
+        System.out.println("Rebuilt workflow distributions from " + rows[0] + " rows in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    // Submission-time values; later edits are picked up by the next rebuild
+    public void recordCreated(Workflow workflow) {
+        if (workflow.getAmount() != null) {
+            cell(workflow).amount.add(workflow.getAmount());
+        }
+    }
+
+    public void recordDecision(Workflow workflow) {
+        if (workflow.getCreatedAt() != null && workflow.getUpdatedAt() != null) {
+            cell(workflow).decisionHours.add(hoursBetween(workflow.getCreatedAt(), workflow.getUpdatedAt()));
+        }
+    }
+
+    // Either filter may be null; breakdowns are returned for the dimension left open
+    public Map<String, Object> getDistributions(String department, String type) {
+        QuantileSketch amount = new QuantileSketch();
+        QuantileSketch decisionHours = new QuantileSketch();
+        Map<String, Cell> byDepartment = new TreeMap<>();
+        Map<String, Cell> byType = new TreeMap<>();
+
+        cells.forEach((key, cell) -> {
+            if ((department != null && !department.equals(key.department())) || (type != null && !type.equals(key.type()))) {
+                return;
+            }
+            cell.amount.mergeInto(amount);
+            cell.decisionHours.mergeInto(decisionHours);
+            cell.mergeInto(byDepartment.computeIfAbsent(key.department(), k -> new Cell()));
+            cell.mergeInto(byType.computeIfAbsent(key.type(), k -> new Cell()));
+        });
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("department", department);
+        result.put("type", type);
+        result.put("amount", amount.summary());
+        result.put("timeToDecisionHours", decisionHours.summary());
+        if (department == null) {
+            result.put("byDepartment", summarize(byDepartment));
+        }
+        if (type == null) {
+            result.put("byType", summarize(byType));
+        }
+        return result;
+    }
+
+    private Map<String, Object> summarize(Map<String, Cell> breakdown) {
+        Map<String, Object> summaries = new TreeMap<>();
+        breakdown.forEach((name, cell) -> summaries.put(name, Map.of(
+                "amount", cell.amount.summary(),
+                "timeToDecisionHours", cell.decisionHours.summary())));
+        return summaries;
+    }
+
+    private Cell cell(Workflow workflow) {
+        return cells.computeIfAbsent(CellKey.of(workflow.getDepartment(), workflow.getType()), k -> new Cell());
+    }
+
+    private static double hoursBetween(LocalDateTime from, LocalDateTime to) {
+        return Math.max(0, Duration.between(from, to).toMillis() / 3_600_000.0);
+    }
+
+    private record CellKey(String department, String type) {
+        static CellKey of(String department, String type) {
+            return new CellKey(department == null ? "" : department, type == null ? "" : type);
+        }
+    }
+
+    private static class Cell {
+        private final QuantileSketch amount = new QuantileSketch();
+        private final QuantileSketch decisionHours = new QuantileSketch();
+
+        void mergeInto(Cell target) {
+            amount.mergeInto(target.amount);
+            decisionHours.mergeInto(target.decisionHours);
+        }
+    }
+}
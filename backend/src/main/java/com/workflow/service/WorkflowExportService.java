@@ -0,0 +1,102 @@
+package com.workflow.service;
+
+import com.workflow.repository.WorkflowCursorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class WorkflowExportService {
+
+    private static final String HEADER = "id,title,description,type,status,amount,department,submittedBy,approvedBy,createdAt,updatedAt";
+
+    @Autowired
+    private WorkflowCursorRepository workflowCursorRepository;
+
+    // Writes matching workflows as CSV; from/to are inclusive creation dates
+    public void exportCsv(LocalDate from, LocalDate to, String department, String status,
+                          boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(HEADER);
+        writer.write('\n');
+        try {
+            workflowCursorRepository.streamRows(
+                    from != null ? from.atStartOfDay() : null,
+                    to != null ? to.plusDays(1).atStartOfDay() : null,
+                    department, status, true,
+                    rs -> writeRow(writer, rs));
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download
+            throw e.getCause();
+        }
+        writer.flush();
+        if (target instanceof GZIPOutputStream gzipStream) {
+            gzipStream.finish();
+        }
+    }
+
+    private void writeRow(Writer writer, ResultSet rs) throws SQLException {
+        try {
+            writer.write(text(rs.getString("id")));
+            writer.write(',');
+            writer.write(text(rs.getString("title")));
+            writer.write(',');
+            writer.write(text(rs.getString("description")));
+            writer.write(',');
+            writer.write(text(rs.getString("type")));
+            writer.write(',');
+            writer.write(text(rs.getString("status")));
+            writer.write(',');
+            double amount = rs.getDouble("amount");
+            if (!rs.wasNull()) {
+                writer.write(BigDecimal.valueOf(amount).toPlainString());
+            }
+            writer.write(',');
+            writer.write(text(rs.getString("department")));
+            writer.write(',');
+            writer.write(text(rs.getString("submitted_by")));
+            writer.write(',');
+            writer.write(text(rs.getString("approved_by")));
+            writer.write(',');
+            writer.write(timestamp(rs.getTimestamp("created_at")));
+            writer.write(',');
+            writer.write(timestamp(rs.getTimestamp("updated_at")));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String timestamp(Timestamp value) {
+        return value == null ? "" : value.toLocalDateTime().toString();
+    }
+
+    private String text(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        // Stop spreadsheets from evaluating user-entered text as a formula
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,68 @@
+package com.workflow.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.config.WorkflowShards;
+import com.workflow.model.OutboxEvent;
+import com.workflow.model.Workflow;
+import com.workflow.repository.OutboxEventRepository;
+import com.workflow.repository.WorkflowRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Write side of the transactional outbox: the workflow row and its event commit or roll
+// back together on the workflow's shard, and OutboxRelay delivers the event later.
+@Service
+public class WorkflowOutbox {
+
+    @Autowired
+    private WorkflowShards shards;
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public Workflow saveWithEvent(Workflow workflow, String eventType) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // The shard has to be selected before the transaction grabs its connection
+        return shards.onShard(shards.shardFor(workflow.getDepartment()), () -> transaction.execute(status -> {
+            Workflow saved = workflowRepository.save(workflow);
+            outboxEventRepository.save(OutboxEvent.of(eventType, saved.getId(), toPayload(saved)));
+            return saved;
+        }));
+    }
+
+    private String toPayload(Workflow workflow) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", workflow.getType());
+        payload.put("status", workflow.getStatus());
+        payload.put("amount", workflow.getAmount());
+        payload.put("department", workflow.getDepartment());
+        payload.put("submittedBy", workflow.getSubmittedBy() != null ? workflow.getSubmittedBy().getUsername() : null);
+        payload.put("decidedBy", workflow.getApprovedBy() != null ? workflow.getApprovedBy().getUsername() : null);
+        payload.put("createdAt", workflow.getCreatedAt());
+        payload.put("updatedAt", workflow.getUpdatedAt());
+        // What the model predicted, so the outcome can be scored against it
+        payload.put("approvalProbability", workflow.getApprovalProbability());
+        payload.put("suggestion", workflow.getSuggestion());
+        payload.put("modelVersion", workflow.getModelVersion());
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload for workflow " + workflow.getId(), e);
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package com.workflow.service;
 
+import com.workflow.model.ArchivedWorkflow;
+import com.workflow.model.Ids;
+import com.workflow.model.OutboxEvent;
 import com.workflow.model.Workflow;
 import com.workflow.model.User;
-import com.workflow.repository.WorkflowRepository;
+import com.workflow.repository.ShardedWorkflowRepository;
 import com.workflow.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,7 +26,7 @@ import java.util.Optional;
 public class WorkflowService {
 
     @Autowired
-    private WorkflowRepository workflowRepository;
+    private ShardedWorkflowRepository workflowRepository;
 
     @Autowired
     private UserRepository userRepository;
@@ -25,6 +34,36 @@ public class WorkflowService {
     @Autowired
     private AIService aiService;
 
+    @Autowired
+    private WorkflowDistributionService distributionService;
+
+    @Autowired
+    private PredictionPipeline predictionPipeline;
+
+    @Autowired
+    private WorkflowBitmapIndex bitmapIndex;
+
+    @Autowired
+    private WorkflowOutbox workflowOutbox;
+
+    @Autowired
+    private ReadCoalescer readCoalescer;
+
+    @Value("${workflow.analytics.freshness-ms:60000}")
+    private long analyticsFreshnessMs;
+
+    private AnalyticsSnapshotCache analyticsCache;
+
+    @PostConstruct
+    void initAnalyticsCache() {
+        analyticsCache = new AnalyticsSnapshotCache(this::loadAnalytics, analyticsFreshnessMs);
+    }
+
+    @PreDestroy
+    void shutdownAnalyticsCache() {
+        analyticsCache.shutdown();
+    }
+
     public Workflow createWorkflow(Workflow workflow, String username) {
         Optional<User> userOpt = userRepository.findByUsername(username);
         if (userOpt.isEmpty()) {
@@ -38,19 +77,94 @@ public class WorkflowService {
         workflow.setCreatedAt(LocalDateTime.now());
         workflow.setUpdatedAt(LocalDateTime.now());
 
-        return workflowRepository.save(workflow);
+        Workflow saved = workflowOutbox.saveWithEvent(workflow, OutboxEvent.WORKFLOW_CREATED);
+        distributionService.recordCreated(saved);
+        bitmapIndex.upsert(saved);
+        readCoalescer.workflowsChanged(saved.getDepartment());
+        predictionPipeline.enqueue(saved);
+        return saved;
+    }
+
+    // Edits are only allowed while the workflow is pending. Fields left out of the request
+    // keep their value; the stored prediction is cleared and the workflow queued for re-scoring
+    public Optional<Workflow> updateWorkflow(String workflowId, Workflow details) {
+        Optional<Workflow> workflowOpt = Ids.parse(workflowId).flatMap(workflowRepository::findById);
+        if (workflowOpt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Workflow workflow = workflowOpt.get();
+        if (!"PENDING".equals(workflow.getStatus())) {
+            throw new IllegalStateException("Only pending workflows can be edited");
+        }
+        if (details.getTitle() != null) {
+            workflow.setTitle(details.getTitle());
+        }
+        if (details.getDescription() != null) {
+            workflow.setDescription(details.getDescription());
+        }
+        if (details.getType() != null) {
+            workflow.setType(details.getType());
+        }
+        if (details.getAmount() != null) {
+            workflow.setAmount(details.getAmount());
+        }
+        workflow.setApprovalProbability(null);
+        workflow.setSuggestion(null);
+        workflow.setModelVersion(null);
+        workflow.setPredictedAt(null);
+        workflow.setUpdatedAt(LocalDateTime.now());
+
+        Workflow saved = workflowRepository.save(workflow);
+        bitmapIndex.upsert(saved);
+        readCoalescer.workflowsChanged(saved.getDepartment());
+        predictionPipeline.enqueue(saved);
+        return Optional.of(saved);
     }
 
     public List<Workflow> getAllWorkflows() {
-        return workflowRepository.findAll();
+        return getAllWorkflows(false);
+    }
+
+    public List<Workflow> getAllWorkflows(boolean includeArchived) {
+        List<Workflow> workflows = workflowRepository.findAll();
+        if (!includeArchived) {
+            return workflows;
+        }
+        return mergeWithArchive(workflows, workflowRepository.findAllArchived());
     }
 
     public List<Workflow> getUserWorkflows(String username) {
-        return workflowRepository.findBySubmittedByUsername(username);
+        return getUserWorkflows(username, false);
+    }
+
+    public List<Workflow> getUserWorkflows(String username, boolean includeArchived) {
+        List<Workflow> workflows = workflowRepository.findBySubmittedByUsername(username);
+        if (!includeArchived) {
+            return workflows;
+        }
+        return mergeWithArchive(workflows, workflowRepository.findArchivedBySubmittedByUsername(username));
     }
 
     public List<Workflow> getDepartmentWorkflows(String department) {
-        return workflowRepository.findByDepartment(department);
+        return getDepartmentWorkflows(department, false);
+    }
+
+    public List<Workflow> getDepartmentWorkflows(String department, boolean includeArchived) {
+        List<Workflow> workflows = workflowRepository.findByDepartment(department);
+        if (!includeArchived) {
+            return workflows;
+        }
+        return mergeWithArchive(workflows, workflowRepository.findArchivedByDepartment(department));
+    }
+
+    // Newest first, so history pages read the same whichever tier a row lives in
+    private List<Workflow> mergeWithArchive(List<Workflow> live, List<ArchivedWorkflow> archived) {
+        List<Workflow> merged = new ArrayList<>(live.size() + archived.size());
+        merged.addAll(live);
+        archived.forEach(a -> merged.add(a.toWorkflow()));
+        merged.sort(Comparator.comparing(Workflow::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return merged;
     }
 
     public List<Workflow> getPendingWorkflows(String department) {
@@ -58,25 +172,50 @@ public class WorkflowService {
     }
 
     public Optional<Workflow> updateWorkflowStatus(String workflowId, String status, String managerUsername) {
-        Optional<Workflow> workflowOpt = workflowRepository.findById(workflowId);
+        Optional<Workflow> workflowOpt = Ids.parse(workflowId).flatMap(workflowRepository::findById);
         Optional<User> managerOpt = userRepository.findByUsername(managerUsername);
 
         if (workflowOpt.isPresent() && managerOpt.isPresent()) {
             Workflow workflow = workflowOpt.get();
+            boolean decided = "PENDING".equals(workflow.getStatus()) && !"PENDING".equals(status);
             workflow.setStatus(status);
             workflow.setApprovedBy(managerOpt.get());
             workflow.setUpdatedAt(LocalDateTime.now());
-            workflowRepository.save(workflow);
+            if (decided) {
+                workflowOutbox.saveWithEvent(workflow, OutboxEvent.WORKFLOW_DECIDED);
+            } else {
+                workflowRepository.save(workflow);
+            }
+            bitmapIndex.upsert(workflow);
+            readCoalescer.workflowsChanged(workflow.getDepartment());
+            if (decided) {
+                distributionService.recordDecision(workflow);
+            }
             return Optional.of(workflow);
         }
         return Optional.empty();
     }
 
     public Map<String, Object> getAnalytics() {
+        return analyticsCache.get();
+    }
+
+    public Map<String, Object> getDistributions(String department, String type) {
+        return distributionService.getDistributions(department, type);
+    }
+
+    public Map<String, Object> queryWorkflows(List<String> departments, List<String> types, List<String> statuses,
+                                              Double minAmount, Double maxAmount, LocalDate from, LocalDate to, int limit) {
+        return bitmapIndex.query(departments, types, statuses, minAmount, maxAmount, from, to, limit);
+    }
+
+    private Map<String, Object> loadAnalytics() {
         try {
             Map<String, Object> aiAnalytics = aiService.getAnalyticsData();
             if (aiAnalytics != null && !aiAnalytics.containsKey("fallback")) {
-                return aiAnalytics;
+                Map<String, Object> analytics = new HashMap<>(aiAnalytics);
+                analytics.put("source", "ml-service");
+                return analytics;
             }
         } catch (Exception e) {
             System.err.println("Error fetching analytics from AI service: " + e.getMessage());
@@ -85,10 +224,11 @@ public class WorkflowService {
     }
 
     private Map<String, Object> generateDatabaseAnalytics() {
-        long totalWorkflows = workflowRepository.count();
-        long pendingWorkflows = workflowRepository.findByStatus("PENDING").size();
-        long approvedWorkflows = workflowRepository.findByStatus("APPROVED").size();
-        long rejectedWorkflows = workflowRepository.findByStatus("REJECTED").size();
+        Map<String, Long> liveCounts = workflowRepository.countByStatus();
+        long pendingWorkflows = liveCounts.getOrDefault("PENDING", 0L);
+        long approvedWorkflows = liveCounts.getOrDefault("APPROVED", 0L) + workflowRepository.countArchivedByStatus("APPROVED");
+        long rejectedWorkflows = liveCounts.getOrDefault("REJECTED", 0L) + workflowRepository.countArchivedByStatus("REJECTED");
+        long totalWorkflows = pendingWorkflows + approvedWorkflows + rejectedWorkflows;
         double approvalRate = totalWorkflows > 0 ? (double) approvedWorkflows / totalWorkflows * 100 : 0;
 
         Map<String, Object> summary = new HashMap<>();
@@ -104,11 +244,29 @@ public class WorkflowService {
         return analytics;
     }
 
+    // Served from the stored prediction; never calls the ML service on the request path
     public Object getAIPrediction(String workflowId) {
-        Optional<Workflow> workflowOpt = workflowRepository.findById(workflowId);
-        if (workflowOpt.isPresent()) {
-            return aiService.getApprovalPrediction(workflowOpt.get());
+        Optional<Workflow> workflowOpt = Ids.parse(workflowId).flatMap(workflowRepository::findById);
+        if (workflowOpt.isEmpty()) {
+            throw new RuntimeException("Workflow not found: " + workflowId);
         }
-        throw new RuntimeException("Workflow not found: " + workflowId);
+
+        Workflow workflow = workflowOpt.get();
+        if (workflow.getApprovalProbability() != null) {
+            Map<String, Object> prediction = new HashMap<>();
+            prediction.put("approvalProbability", workflow.getApprovalProbability());
+            prediction.put("suggestion", workflow.getSuggestion());
+            prediction.put("modelVersion", workflow.getModelVersion());
+            prediction.put("predictedAt", workflow.getPredictedAt());
+            prediction.put("pending", false);
+            return prediction;
+        }
+
+        // Not scored yet (or the queue was full when it was submitted): answer with the
+        // local rules and make sure it is queued
+        predictionPipeline.enqueue(workflow);
+        Map<String, Object> prediction = new HashMap<>(aiService.getFallbackPrediction(workflow));
+        prediction.put("pending", true);
+        return prediction;
     }
 }
@@ -0,0 +1,139 @@
+package com.workflow.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTest {
+
+    // Mirrors QuantileSketch.RELATIVE_ACCURACY; a tiny slack absorbs floating-point error at bucket edges
+    private static final double RELATIVE_ACCURACY = 0.01 + 1e-9;
+    private static final double[] QUANTILES = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999};
+
+    @Test
+    void quantilesOfUniformValuesAreWithinRelativeAccuracy() {
+        QuantileSketch sketch = new QuantileSketch();
+        int n = 100_000;
+        for (int i = 1; i <= n; i++) {
+            sketch.add(i);
+        }
+
+        assertThat(sketch.getCount()).isEqualTo(n);
+        for (double q : QUANTILES) {
+            double expected = Math.ceil(q * n);
+            assertThat(sketch.quantile(q)).isCloseTo(expected, within(expected * RELATIVE_ACCURACY));
+        }
+        assertThat(sketch.quantile(0)).isEqualTo(1);
+        assertThat(sketch.quantile(1)).isCloseTo(n, within(n * RELATIVE_ACCURACY));
+    }
+
+    @Test
+    void quantilesOfLogNormalValuesAreWithinRelativeAccuracy() {
+        SplittableRandom random = new SplittableRandom(7);
+        int n = 50_000;
+        double[] values = new double[n];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < n; i++) {
+            values[i] = Math.exp(6 + 1.5 * gaussian(random));
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : QUANTILES) {
+            double expected = values[(int) Math.ceil(q * n) - 1];
+            assertThat(sketch.quantile(q)).isCloseTo(expected, within(expected * RELATIVE_ACCURACY));
+        }
+    }
+
+    @Test
+    void mergedSketchesMatchOneSketchFedEverything() {
+        SplittableRandom random = new SplittableRandom(11);
+        QuantileSketch all = new QuantileSketch();
+        QuantileSketch left = new QuantileSketch();
+        QuantileSketch right = new QuantileSketch();
+        for (int i = 0; i < 20_000; i++) {
+            double value = i % 50 == 0 ? 0 : random.nextDouble() * 10_000;
+            all.add(value);
+            (i % 3 == 0 ? left : right).add(value);
+        }
+
+        QuantileSketch merged = new QuantileSketch();
+        left.mergeInto(merged);
+        right.mergeInto(merged);
+
+        assertThat(merged.getCount()).isEqualTo(all.getCount());
+        for (double q : QUANTILES) {
+            assertThat(merged.quantile(q)).isEqualTo(all.quantile(q));
+        }
+        assertThat(merged.summary()).isEqualTo(all.summary());
+    }
+
+    @Test
+    void emptySketchHasNoQuantiles() {
+        QuantileSketch sketch = new QuantileSketch();
+
+        assertThat(sketch.quantile(0.5)).isNaN();
+        assertThat(sketch.summary()).containsOnlyKeys("count");
+    }
+
+    @Test
+    void zerosAreCountedAndReportedAsZero() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(0);
+        sketch.add(0);
+        sketch.add(0);
+        sketch.add(100);
+
+        assertThat(sketch.getCount()).isEqualTo(4);
+        assertThat(sketch.quantile(0.5)).isEqualTo(0);
+        assertThat(sketch.quantile(0.75)).isEqualTo(0);
+        assertThat(sketch.quantile(1)).isCloseTo(100, within(100 * RELATIVE_ACCURACY));
+    }
+
+    @Test
+    void valuesBelowMinValueShareTheZeroBucket() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(0.001);
+        sketch.add(0.005);
+        sketch.add(50);
+
+        assertThat(sketch.getCount()).isEqualTo(3);
+        // Reported as the smallest observed value, which is below the sketch's 0.01 floor
+        assertThat(sketch.quantile(0.5)).isEqualTo(0.001);
+        assertThat(sketch.quantile(1)).isCloseTo(50, within(50 * RELATIVE_ACCURACY));
+    }
+
+    @Test
+    void valuesAboveMaxValueSaturateAtMaxValue() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(1e12);
+
+        assertThat(sketch.getCount()).isEqualTo(1);
+        // A lone value is clamped back to what was observed
+        assertThat(sketch.quantile(0.5)).isEqualTo(1e12);
+
+        sketch.add(10);
+        // Otherwise it lands in the top bucket, but the exact max is still reported
+        assertThat(sketch.quantile(1)).isCloseTo(1e10, within(1e10 * RELATIVE_ACCURACY));
+        assertThat(sketch.quantile(0.5)).isCloseTo(10, within(10 * RELATIVE_ACCURACY));
+        assertThat(sketch.summary().get("max")).isEqualTo(1e12);
+    }
+
+    @Test
+    void negativeAndNaNValuesAreIgnored() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(-5);
+        sketch.add(Double.NaN);
+
+        assertThat(sketch.getCount()).isZero();
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
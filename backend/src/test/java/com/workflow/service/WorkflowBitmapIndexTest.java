@@ -0,0 +1,163 @@
+package com.workflow.service;
+
+import com.workflow.model.Workflow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkflowBitmapIndexTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 2, 12, 0);
+
+    private WorkflowBitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new WorkflowBitmapIndex();
+    }
+
+    @Test
+    void amountRangeRefinesRowsInsideOneBin() {
+        // All four amounts share a bin, so the result depends entirely on edge refinement
+        assertThat(WorkflowBitmapIndex.amountBin(100.10)).isEqualTo(WorkflowBitmapIndex.amountBin(100.90));
+        index.upsert(workflow("IT", "PURCHASE", "PENDING", 100.10, CREATED));
+        Workflow low = index(workflow("IT", "PURCHASE", "PENDING", 100.25, CREATED));
+        Workflow high = index(workflow("IT", "PURCHASE", "PENDING", 100.40, CREATED));
+        index.upsert(workflow("IT", "PURCHASE", "PENDING", 100.90, CREATED));
+
+        Map<String, Object> result = query(null, null, 100.25, 100.40, null, null);
+
+        assertThat(result.get("count")).isEqualTo(2L);
+        assertThat(matchIds(result)).containsExactlyInAnyOrder(low.getId(), high.getId());
+    }
+
+    @Test
+    void amountRangeSpansBinsAndExcludesRowsWithoutAmount() {
+        index.upsert(workflow("IT", "LEAVE", "PENDING", null, CREATED));
+        index.upsert(workflow("IT", "PURCHASE", "PENDING", 0.5, CREATED));
+        Workflow middle = index(workflow("IT", "PURCHASE", "PENDING", 2500.0, CREATED));
+        index.upsert(workflow("IT", "PURCHASE", "PENDING", 2_000_000.0, CREATED));
+
+        Map<String, Object> result = query(null, null, 1.0, 1_000_000.0, null, null);
+
+        assertThat(matchIds(result)).containsExactly(middle.getId());
+        assertThat(query(null, null, null, 1.0, null, null).get("count")).isEqualTo(1L);
+    }
+
+    @Test
+    void minAboveMaxMatchesNothing() {
+        index.upsert(workflow("IT", "PURCHASE", "PENDING", 100.30, CREATED));
+
+        assertThat(query(null, null, 100.5, 100.2, null, null).get("count")).isEqualTo(0L);
+        assertThat(query(null, null, 5000.0, 10.0, null, null).get("count")).isEqualTo(0L);
+    }
+
+    @Test
+    void upsertOfExistingRowReplacesItsOldValues() {
+        Workflow workflow = index(workflow("IT", "PURCHASE", "PENDING", 50.0, CREATED));
+
+        workflow.setStatus("APPROVED");
+        workflow.setAmount(5000.0);
+        workflow.setCreatedAt(CREATED.plusDays(10));
+        index.upsert(workflow);
+
+        assertThat(query(null, List.of("PENDING"), null, null, null, null).get("count")).isEqualTo(0L);
+        assertThat(query(null, List.of("APPROVED"), null, null, null, null).get("count")).isEqualTo(1L);
+        assertThat(query(null, null, 40.0, 60.0, null, null).get("count")).isEqualTo(0L);
+        assertThat(query(null, null, 4000.0, 6000.0, null, null).get("count")).isEqualTo(1L);
+        assertThat(query(null, null, null, null, CREATED.toLocalDate(), CREATED.toLocalDate()).get("count")).isEqualTo(0L);
+        assertThat(query(null, null, null, null, null, null).get("count")).isEqualTo(1L);
+    }
+
+    @Test
+    void removeDropsRowFromEveryDimension() {
+        Workflow kept = index(workflow("IT", "PURCHASE", "PENDING", 50.0, CREATED));
+        Workflow removed = index(workflow("HR", "LEAVE", "APPROVED", 70.0, CREATED));
+
+        index.remove(removed.getId());
+        index.remove(UUID.randomUUID());
+
+        Map<String, Object> result = query(null, null, null, null, null, null);
+        assertThat(matchIds(result)).containsExactly(kept.getId());
+        assertThat(query(List.of("HR"), null, null, null, null, null).get("count")).isEqualTo(0L);
+        assertThat(query(null, null, 60.0, 80.0, null, null).get("count")).isEqualTo(0L);
+        assertThat(result.get("byDepartment")).isEqualTo(Map.of("IT", 1L));
+    }
+
+    @Test
+    void dateFilterIncludesBothEndDays() {
+        index.upsert(workflow("IT", "PURCHASE", "PENDING", 10.0, LocalDateTime.of(2024, 3, 1, 23, 59, 59)));
+        Workflow first = index(workflow("IT", "PURCHASE", "PENDING", 10.0, LocalDateTime.of(2024, 3, 2, 0, 0)));
+        Workflow last = index(workflow("IT", "PURCHASE", "PENDING", 10.0, LocalDateTime.of(2024, 3, 3, 23, 59, 59)));
+        index.upsert(workflow("IT", "PURCHASE", "PENDING", 10.0, LocalDateTime.of(2024, 3, 4, 0, 0)));
+
+        Map<String, Object> result = query(null, null, null, null, LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 3));
+
+        assertThat(matchIds(result)).containsExactlyInAnyOrder(first.getId(), last.getId());
+        assertThat(query(null, null, null, null, LocalDate.of(2024, 3, 3), null).get("count")).isEqualTo(2L);
+        assertThat(query(null, null, null, null, LocalDate.of(2024, 3, 3), LocalDate.of(2024, 3, 2)).get("count")).isEqualTo(0L);
+    }
+
+    @Test
+    void facetCountsDescribeTheFilteredRows() {
+        index.upsert(workflow("IT", "PURCHASE", "PENDING", 10.0, CREATED));
+        index.upsert(workflow("IT", "BUDGET", "APPROVED", 10.0, CREATED));
+        index.upsert(workflow("HR", "LEAVE", "APPROVED", 10.0, CREATED));
+        index.upsert(workflow("Finance", "BUDGET", "REJECTED", 10.0, CREATED));
+
+        Map<String, Object> result = query(List.of("IT", "HR"), null, null, null, null, null);
+
+        assertThat(result.get("count")).isEqualTo(3L);
+        assertThat(result.get("byDepartment")).isEqualTo(Map.of("IT", 2L, "HR", 1L));
+        assertThat(result.get("byType")).isEqualTo(Map.of("PURCHASE", 1L, "BUDGET", 1L, "LEAVE", 1L));
+        assertThat(result.get("byStatus")).isEqualTo(Map.of("PENDING", 1L, "APPROVED", 2L));
+    }
+
+    @Test
+    void limitCapsMatchesButNotCount() {
+        for (int i = 0; i < 5; i++) {
+            index.upsert(workflow("IT", "PURCHASE", "PENDING", 10.0, CREATED));
+        }
+
+        Map<String, Object> result = index.query(null, null, null, null, null, null, null, 2);
+
+        assertThat(result.get("count")).isEqualTo(5L);
+        assertThat((List<?>) result.get("matches")).hasSize(2);
+    }
+
+    private Workflow index(Workflow workflow) {
+        index.upsert(workflow);
+        return workflow;
+    }
+
+    private Map<String, Object> query(List<String> departments, List<String> statuses, Double minAmount, Double maxAmount,
+                                      LocalDate from, LocalDate to) {
+        return index.query(departments, null, statuses, minAmount, maxAmount, from, to, 100);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<UUID> matchIds(Map<String, Object> result) {
+        return ((List<Map<String, Object>>) result.get("matches")).stream()
+                .map(match -> (UUID) match.get("id"))
+                .collect(Collectors.toList());
+    }
+
+    private static Workflow workflow(String department, String type, String status, Double amount, LocalDateTime createdAt) {
+        Workflow workflow = new Workflow();
+        workflow.setId(UUID.randomUUID());
+        workflow.setDepartment(department);
+        workflow.setType(type);
+        workflow.setStatus(status);
+        workflow.setAmount(amount);
+        workflow.setCreatedAt(createdAt);
+        return workflow;
+    }
+}
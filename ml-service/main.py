@@ -1,13 +1,16 @@
 from fastapi import FastAPI, HTTPException
 from fastapi.middleware.cors import CORSMiddleware
 from pydantic import BaseModel
-from typing import Dict, Any, List
+from typing import Dict, Any, List, Optional
 import numpy as np
 from datetime import datetime, timedelta
 import random
+from collections import OrderedDict
 
 app = FastAPI(title="Workflow AI Service")
 
+MODEL_VERSION = "mock-weights-v1"
+
 app.add_middleware(
     CORSMiddleware,
     allow_origins=["*"],
@@ -17,7 +20,7 @@ app.add_middleware(
 
 class WorkflowPredictionRequest(BaseModel):
     title: str
-    description: str
+    description: Optional[str] = None
     type: str
     amount: float = None
     department: str
@@ -26,6 +29,26 @@ class PredictionResponse(BaseModel):
     approvalProbability: float
     suggestion: str
     confidence: float
+    modelVersion: str = MODEL_VERSION
+
+class BatchPredictionRequest(BaseModel):
+    # Items are validated one by one so a single bad row cannot fail the whole batch
+    workflows: List[Dict[str, Any]]
+
+class BatchPredictionResponse(BaseModel):
+    # Aligned with the request; null where that item could not be scored
+    predictions: List[Optional[PredictionResponse]]
+
+class FeedbackEvent(BaseModel):
+    eventId: str
+    eventType: str
+    workflowId: str
+    occurredAt: str = None
+    attempts: int = 0
+    data: Dict[str, Any] = {}
+
+class FeedbackBatchRequest(BaseModel):
+    events: List[FeedbackEvent]
 
 class AnalyticsResponse(BaseModel):
     summary: Dict[str, Any]
@@ -257,8 +280,50 @@ class AnalyticsService:
             "userSatisfaction": 4.2
         }
 
+class FeedbackStore:
+    """Outcomes reported by the backend's outbox relay. Delivery is at-least-once,
+    so events are deduplicated on eventId before they are counted."""
+
+    def __init__(self, max_seen_ids: int = 100000):
+        self.max_seen_ids = max_seen_ids
+        self.seen_ids = OrderedDict()
+        self.created = 0
+        self.outcomes = {}
+
+    def record(self, event: FeedbackEvent) -> bool:
+        if event.eventId in self.seen_ids:
+            return False
+        self.seen_ids[event.eventId] = True
+        if len(self.seen_ids) > self.max_seen_ids:
+            self.seen_ids.popitem(last=False)
+
+        if event.eventType == "WORKFLOW_CREATED":
+            self.created += 1
+        elif event.eventType == "WORKFLOW_DECIDED":
+            version = event.data.get("modelVersion") or "unscored"
+            stats = self.outcomes.setdefault(version, {"decided": 0, "approved": 0, "predictedApprovalSum": 0.0, "scored": 0})
+            stats["decided"] += 1
+            if event.data.get("status") == "APPROVED":
+                stats["approved"] += 1
+            probability = event.data.get("approvalProbability")
+            if probability is not None:
+                stats["scored"] += 1
+                stats["predictedApprovalSum"] += float(probability)
+        return True
+
+    def summary(self) -> Dict[str, Any]:
+        by_version = {}
+        for version, stats in self.outcomes.items():
+            by_version[version] = {
+                "decided": stats["decided"],
+                "actualApprovalRate": round(stats["approved"] / stats["decided"], 3) if stats["decided"] else None,
+                "meanPredictedApproval": round(stats["predictedApprovalSum"] / stats["scored"], 3) if stats["scored"] else None,
+            }
+        return {"created": self.created, "byModelVersion": by_version}
+
 ml_model = MockMLModel()  # This should work now
 analytics_service = AnalyticsService()
+feedback_store = FeedbackStore()
 
 @app.get("/")
 async def root():
@@ -281,6 +346,26 @@ async def predict_approval(request: WorkflowPredictionRequest):
     except Exception as e:
         raise HTTPException(status_code=500, detail=f"Prediction error: {str(e)}")
 
+@app.post("/api/predict-approval/batch", response_model=BatchPredictionResponse)
+async def predict_approval_batch(request: BatchPredictionRequest):
+    predictions = []
+    for item in request.workflows:
+        try:
+            workflow = WorkflowPredictionRequest(**item)
+            predictions.append(PredictionResponse(**ml_model.predict(workflow.dict())))
+        except Exception:
+            predictions.append(None)
+    return BatchPredictionResponse(predictions=predictions)
+
+@app.post("/api/feedback/batch")
+async def record_feedback_batch(request: FeedbackBatchRequest):
+    accepted = sum(1 for event in request.events if feedback_store.record(event))
+    return {"accepted": accepted, "duplicates": len(request.events) - accepted}
+
+@app.get("/api/feedback/summary")
+async def feedback_summary():
+    return feedback_store.summary()
+
 @app.get("/api/health")
 async def health_check():
     return {"status": "healthy", "service": "workflow-ai"}